@@ -0,0 +1,48 @@
+package animation;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Asteroid.destroy splitting a medium asteroid into two small
+ * ones. The asteroids are released afterwards so the field stays the same
+ * size from one invocation to the next.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsteroidSplitBenchmark {
+    private AsteroidField field;
+
+    @Setup
+    public void setUp() {
+        field = new AsteroidField(new AsteroidsWorld(900, 900, 42), 16, new Random(42));
+    }
+
+    @Benchmark
+    public int split() {
+        Asteroid asteroid = field.get(field.spawn(2, 450, 450));
+        List<Asteroid> pieces = asteroid.destroy();
+        int count = pieces.size();
+        for (Asteroid piece : pieces) {
+            field.release(piece.getSlot());
+        }
+        field.release(asteroid.getSlot());
+        return count;
+    }
+}
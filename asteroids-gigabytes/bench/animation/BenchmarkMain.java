@@ -0,0 +1,30 @@
+package animation;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the animation benchmarks with the GC profiler turned on, so every
+ * result comes with its allocation rate (gc.alloc.rate.norm is the number
+ * of bytes allocated per operation).
+ *
+ * Any normal JMH command line options can be passed, for example a regular
+ * expression to run only some benchmarks, or -rf json -rff baseline.json to
+ * save the results for comparing against later.
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options commandLine = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .include("animation\\..*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,107 @@
+package animation;
+
+import java.awt.geom.Area;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures collision checks between the ship and asteroids, per pair.
+ *
+ * With "scattered" asteroids are spread over the playfield, so most pairs
+ * miss and a few hit, as in a real game. With "overlapping" every
+ * asteroid's bounding box overlaps the ship's, so every pair reaches the
+ * exact test; this is the cost of the exact test itself. Each is measured
+ * comparing bounding boxes only, with the two-phase check the game uses,
+ * and by intersecting two java.awt.geom.Area objects.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    // Number of asteroids checked per invocation
+    private static final int PAIRS = 1024;
+
+    @Param({"scattered", "overlapping"})
+    public String placement;
+
+    private Ship ship;
+
+    private Asteroid[] asteroids = new Asteroid[PAIRS];
+
+    @Setup
+    public void setUp() {
+        Playfield playfield = new AsteroidsWorld(900, 900, 42);
+        Random random = new Random(42);
+        ship = new Ship(playfield, random);
+        ship.right();
+        AsteroidField field = new AsteroidField(playfield, PAIRS, random);
+        for (int i = 0; i < PAIRS; i++) {
+            int x;
+            int y;
+            if (placement.equals("overlapping")) {
+                // somewhere an asteroid's box of up to 60 pixels reaches
+                // into the ship's box
+                x = ship.getX() - 70 + random.nextInt(80);
+                y = ship.getY() - 70 + random.nextInt(80);
+            } else {
+                x = random.nextInt(900);
+                y = random.nextInt(900);
+            }
+            asteroids[i] = field.get(field.spawn(1 + random.nextInt(2), x, y));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int boundingBoxes() {
+        int hits = 0;
+        for (Asteroid asteroid : asteroids) {
+            if (AsteroidsWorld.checkCollision((AnimatedObject) ship, asteroid)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int twoPhase() {
+        int hits = 0;
+        for (Asteroid asteroid : asteroids) {
+            if (AsteroidsWorld.checkCollision(ship, asteroid)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int area() {
+        int hits = 0;
+        for (Asteroid asteroid : asteroids) {
+            Area area = new Area(ship.getShape());
+            area.intersect(new Area(asteroid.getShape()));
+            if (!area.isEmpty()) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
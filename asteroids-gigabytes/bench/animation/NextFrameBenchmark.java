@@ -0,0 +1,79 @@
+package animation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one tick of the game (what AsteroidsGame.nextFrame runs) with
+ * different numbers of asteroids on the default 900x900 playfield.
+ *
+ * The ship is given endless lives so the game never ends partway through a
+ * measurement, and fires every few ticks so shots are part of the load.
+ * With parallel set, large fields are moved on a ForkJoinPool with one
+ * thread per core.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NextFrameBenchmark {
+    // Ticks between shots
+    private static final int FIRE_INTERVAL = 8;
+
+    @Param({"10", "1000", "100000"})
+    public int asteroids;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private AsteroidsWorld world;
+
+    private ForkJoinPool pool;
+
+    private int ticks;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        world = new AsteroidsWorld(900, 900, 42);
+        world.spawnAsteroids(asteroids - world.getAsteroids().size());
+        world.setStartingLives(Integer.MAX_VALUE);
+        if (parallel) {
+            pool = new ForkJoinPool();
+            world.getAsteroids().setParallelUpdate(pool, AsteroidField.DEFAULT_PARALLEL_THRESHOLD);
+        }
+        ticks = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    @Benchmark
+    public AsteroidsWorld step() {
+        if (++ticks % FIRE_INTERVAL == 0) {
+            world.apply(Command.FIRE);
+        }
+        world.step();
+        return world;
+    }
+}
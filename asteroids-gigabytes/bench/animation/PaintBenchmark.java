@@ -0,0 +1,66 @@
+package animation;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures AsteroidsGame.paintComponent drawing into an offscreen image,
+ * so it runs without a display. With sprites set, the ship and asteroids
+ * are copied from a SpriteCache; otherwise their shapes are filled and
+ * stroked every frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark {
+    @Param({"10", "1000"})
+    public int asteroids;
+
+    @Param({"false", "true"})
+    public boolean sprites;
+
+    private AsteroidsGame game;
+
+    private BufferedImage image;
+
+    private Graphics2D g;
+
+    @Setup
+    public void setUp() {
+        AsteroidsWorld world = new AsteroidsWorld(900, 900, 42);
+        world.spawnAsteroids(asteroids - world.getAsteroids().size());
+        game = new AsteroidsGame(world);
+        game.setSpriteCache(sprites ? new SpriteCache() : null);
+        game.setSize(900, 900);
+        image = new BufferedImage(900, 900, BufferedImage.TYPE_INT_RGB);
+        g = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paint() {
+        game.paintComponent(g);
+        return image;
+    }
+}
@@ -0,0 +1,45 @@
+package animation;
+
+import java.awt.Shape;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Ship.getShape, both when nothing has changed since the last
+ * call and when the ship has just turned.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShipShapeBenchmark {
+    private Ship ship;
+
+    @Setup
+    public void setUp() {
+        ship = new Ship(new AsteroidsWorld(900, 900, 42));
+    }
+
+    @Benchmark
+    public Shape unchanged() {
+        return ship.getShape();
+    }
+
+    @Benchmark
+    public Shape afterTurning() {
+        ship.right();
+        return ship.getShape();
+    }
+}
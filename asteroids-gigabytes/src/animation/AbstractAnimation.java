@@ -1,4 +1,12 @@
 package animation;
+import java.awt.BorderLayout;
+import java.awt.Canvas;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 import javax.swing.JComponent;
 
 /**
@@ -7,16 +15,139 @@ import javax.swing.JComponent;
  * milliseconds, giving the animation an opportunity to update the display and
  * do whatever operations it needs to during the animation.
  *
+ * The animation runs on a fixed timestep: nextFrame is called once per tick
+ * no matter how long the previous tick took, and if the loop falls behind it
+ * runs extra ticks back to back to catch up. Repainting runs at its own rate,
+ * which defaults to the tick rate.
+ *
+ * Frames are normally drawn by asking Swing to repaint, which draws them
+ * later on the event dispatch thread. With setActiveRendering(true), the
+ * animation thread instead draws each frame itself onto a Canvas with a
+ * BufferStrategy and shows it straight away. If that is not possible, for
+ * example because there is no screen, the animation falls back to
+ * repainting. Either way the time taken to draw each frame and the time
+ * between frames are kept in histograms so the two can be compared.
+ *
+ * With setMetrics, the time spent in ticks, painting and sleeping is also
+ * recorded in a FrameMetrics, next to whatever phases the subclass times.
+ * Each tick and sleep is also a Java Flight Recorder event (see
+ * GameEvents) when a recording has those events turned on.
+ *
+ * With setPipelinedRendering, active rendering is done on a separate render
+ * thread instead, so the next tick can be run while the last one is being
+ * drawn. After each tick that is due to be shown, the animation thread
+ * copies what is needed to draw it into a frame (see captureFrame) and
+ * puts it on a bounded FrameQueue, and the render thread takes frames off
+ * the queue and draws them (see paintFrame). When drawing cannot keep up,
+ * the queue either drops the oldest frames or holds up the animation
+ * thread until there is room. Frames are then drawn up to a tick or so
+ * behind the simulation.
+ *
+ * An animation goes from NEW to RUNNING when started, and can be paused
+ * and resumed any number of times. stop() interrupts the animation thread,
+ * so it does not sleep out the rest of a tick, and waits for it to finish,
+ * so the animation can be started again without two threads ever running
+ * it at once.
  */
-public abstract class AbstractAnimation extends JComponent implements Runnable {
+public abstract class AbstractAnimation extends JComponent implements Runnable, Playfield {
     // Default amount of time between frame updates.
     private static final int DEFAULT_MILLIS_BETWEEN_FRAMES = 30;
 
+    // Default number of ticks that may be run back to back when catching up.
+    private static final int DEFAULT_MAX_CATCH_UP_TICKS = 5;
+
+    // Number of nanoseconds in a millisecond.
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    // Number of nanoseconds in a second.
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Where an animation is in its life.
+     */
+    public enum State {
+        // created but never started
+        NEW,
+        // the animation thread is running ticks
+        RUNNING,
+        // the animation thread is waiting to be resumed
+        PAUSED,
+        // stopped, and can be started again
+        STOPPED
+    }
+
     // The thread in which the animation is running.
-    private Thread animationThread;
+    private volatile Thread animationThread;
+
+    // Where the animation is in its life. Only changed while holding
+    // lifecycleLock, which paused threads also wait on.
+    private volatile State state = State.NEW;
+    private final Object lifecycleLock = new Object();
+
+    // Length of one simulation tick, in nanoseconds
+    private final long tickNanos;
+
+    // Time between repaints, in nanoseconds
+    private volatile long renderNanos;
+
+    // Most ticks run in a row before the backlog is dropped
+    private volatile int maxCatchUpTicks = DEFAULT_MAX_CATCH_UP_TICKS;
+
+    // Number of ticks run so far
+    private volatile long tickCount;
+
+    // Number of ticks whose nextFrame took longer than a whole tick
+    private volatile long overrunCount;
+
+    // Number of ticks skipped because the catch-up limit was reached
+    private volatile long droppedTicks;
+
+    // Longest time spent in a single nextFrame call, in nanoseconds
+    private volatile long maxTickNanos;
+
+    // Total time spent in nextFrame, in nanoseconds
+    private volatile long totalTickNanos;
+
+    // Number of buffers to page flip between when rendering actively
+    private static final int BUFFER_COUNT = 2;
+
+    // true when the animation thread draws frames itself
+    private volatile boolean activeRendering;
+
+    // What frames are drawn on when rendering actively, otherwise null
+    private volatile Canvas canvas;
+
+    // Time taken to draw each frame, in nanoseconds
+    private final FrameTimeHistogram frameTimes = new FrameTimeHistogram();
+
+    // Time from one frame being finished to the next, in nanoseconds
+    private final FrameTimeHistogram frameIntervals = new FrameTimeHistogram();
+
+    // When the last frame was finished, or 0 before the first frame
+    private volatile long lastFrameEnd;
+
+    // Where tick, paint and sleep times are recorded, or null
+    private volatile FrameMetrics metrics;
+
+    // When time started being owed to the next tick, from System.nanoTime,
+    // for working out how far through a tick a frame is drawn. One value,
+    // so it is never read half updated.
+    private volatile long tickStartNanos;
+
+    // Frames waiting for the render thread when pipelining, otherwise null
+    private volatile FrameQueue<Object> frameQueue;
 
-    // Amount of time paused between frames
-    private int pauseTime;
+    // The thread drawing frames from frameQueue, or null
+    private volatile Thread renderThread;
+
+    // Size and policy of the frame queue made on start, or a null policy
+    // to draw on the animation thread
+    private int pipelineCapacity = FrameQueue.DEFAULT_CAPACITY;
+    private FrameQueue.Policy pipelinePolicy;
+
+    // Code to run on the animation thread before the next tick, oldest
+    // first
+    private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
 
     /**
      * Creates an animation with the default frame rate.
@@ -27,32 +158,279 @@ public abstract class AbstractAnimation extends JComponent implements Runnable {
 
     /**
      * Creates an animation with the specified frame rate.
-     * 
+     *
      * @param pauseTime the length of time to pause between frames, measured in
      *                  milliseconds. Should be > 0.
      */
     public AbstractAnimation(int pauseTime) {
         assert pauseTime > 0;
-        this.pauseTime = pauseTime;
+        this.tickNanos = pauseTime * NANOS_PER_MILLI;
+        this.renderNanos = tickNanos;
     }
 
     /**
-     * Starts the animation
+     * Starts the animation on a new thread. Does nothing if it is already
+     * running or paused.
      */
     public void start() {
-        if (animationThread == null) {
-            animationThread = new Thread(this);
-            animationThread.start();
+        synchronized (lifecycleLock) {
+            if (state == State.RUNNING || state == State.PAUSED) {
+                return;
+            }
+            if (pipelinePolicy != null) {
+                FrameQueue<Object> queue = new FrameQueue<>(pipelineCapacity,
+                        pipelinePolicy, this::createFrame);
+                frameQueue = queue;
+                Thread render = new Thread(() -> renderFrames(queue), "Render");
+                renderThread = render;
+                render.start();
+            } else {
+                frameQueue = null;
+            }
+            Thread thread = new Thread(this, "Animation");
+            animationThread = thread;
+            state = State.RUNNING;
+            thread.start();
         }
     }
 
     /**
-     * Stops the animation.
+     * Stops the animation, interrupting the animation thread if it is
+     * sleeping or paused, and waits for the thread to finish. The render
+     * thread, if there is one, is stopped the same way. When called on
+     * one of those threads itself, that thread stops once the current
+     * tick or frame is over.
+     *
+     * Code given to runBetweenTicks that the animation thread had not got
+     * to yet is still run, once the last tick is over. When stop is called
+     * from another thread, it has all been run by the time stop returns.
      */
     public void stop() {
-        if (animationThread != null) {
+        Thread thread;
+        Thread render;
+        synchronized (lifecycleLock) {
+            thread = animationThread;
+            if (thread == null) {
+                return;
+            }
+            render = renderThread;
             animationThread = null;
+            renderThread = null;
+            state = State.STOPPED;
+            lifecycleLock.notifyAll();
+            thread.interrupt();
+            if (render != null) {
+                render.interrupt();
+            }
+        }
+        boolean interrupted = join(thread);
+        if (render != null) {
+            interrupted |= join(render);
+        }
+        // the thread runs them as it finishes, unless a tick threw
+        if (thread != Thread.currentThread()) {
+            runPendingTasks();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for a thread to finish, unless it is this one.
+     *
+     * @param thread the thread to wait for
+     * @return true if this thread was interrupted while waiting
+     */
+    private static boolean join(Thread thread) {
+        boolean interrupted = false;
+        while (thread != Thread.currentThread() && thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
         }
+        return interrupted;
+    }
+
+    /**
+     * Pauses a running animation after the tick it is on. No ticks run and
+     * nothing is repainted by the animation until it is resumed.
+     */
+    public void pause() {
+        synchronized (lifecycleLock) {
+            if (state == State.RUNNING) {
+                state = State.PAUSED;
+            }
+        }
+    }
+
+    /**
+     * Carries on a paused animation. The time spent paused is not caught
+     * up on.
+     */
+    public void resume() {
+        synchronized (lifecycleLock) {
+            if (state == State.PAUSED) {
+                state = State.RUNNING;
+                lifecycleLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * @return where the animation is in its life
+     */
+    public State getAnimationState() {
+        return state;
+    }
+
+    /**
+     * Runs a piece of code at the next tick boundary, while no tick is
+     * running. If the animation thread is not running, nothing can be part
+     * way through a tick, so it is run straight away on this thread. Every
+     * piece of code given before the next tick boundary is run there, in
+     * the order given.
+     *
+     * @param task the code to run
+     * @return true if it was run straight away, false if it will be run
+     *         by the animation thread
+     */
+    protected boolean runBetweenTicks(Runnable task) {
+        synchronized (lifecycleLock) {
+            if (animationThread == null) {
+                task.run();
+                return true;
+            }
+            pendingTasks.add(task);
+            return false;
+        }
+    }
+
+    /**
+     * Sets how often the animation is repainted. This is independent of how
+     * often nextFrame is called.
+     *
+     * @param framesPerSecond the number of repaints per second. Should be > 0.
+     */
+    public void setRenderRate(int framesPerSecond) {
+        assert framesPerSecond > 0;
+        renderNanos = NANOS_PER_SECOND / framesPerSecond;
+    }
+
+    /**
+     * Turns active rendering on or off. When it is on, the animation thread
+     * draws each frame onto a Canvas filling this component and shows it
+     * with page flipping, instead of asking Swing to repaint. This should
+     * be called on the event dispatch thread, usually before the component
+     * is shown.
+     *
+     * @param active true to draw frames on the animation thread
+     */
+    public void setActiveRendering(boolean active) {
+        if (active && canvas == null) {
+            Canvas newCanvas = new Canvas();
+            newCanvas.setIgnoreRepaint(true);
+            // leave keyboard focus with this component and its listeners
+            newCanvas.setFocusable(false);
+            setLayout(new BorderLayout());
+            add(newCanvas, BorderLayout.CENTER);
+            canvas = newCanvas;
+        } else if (!active && canvas != null) {
+            remove(canvas);
+            canvas = null;
+        }
+        activeRendering = active;
+        revalidate();
+    }
+
+    /**
+     * @return true if active rendering has been turned on
+     */
+    public boolean isActiveRendering() {
+        return activeRendering;
+    }
+
+    /**
+     * Turns pipelined rendering on with the default queue size, dropping
+     * the oldest frames when drawing falls behind, or turns it off.
+     *
+     * @param pipelined true to draw frames on a render thread while the
+     *                  animation thread runs the next tick
+     * @see #setPipelinedRendering(int, FrameQueue.Policy)
+     */
+    public void setPipelinedRendering(boolean pipelined) {
+        setPipelinedRendering(FrameQueue.DEFAULT_CAPACITY,
+                pipelined ? FrameQueue.Policy.DROP : null);
+    }
+
+    /**
+     * Turns pipelined rendering on or off. When it is on and active
+     * rendering is being used, frames are drawn on a render thread from a
+     * queue of frames the animation thread fills, so ticks and drawing can
+     * run on different cores at once. When frames cannot be drawn actively,
+     * the animation falls back to asking Swing to repaint as usual. This
+     * takes effect the next time the animation is started.
+     *
+     * @param capacity the most frames that can wait to be drawn. Should be
+     *                 > 0. More frames smooth over slow draws but show the
+     *                 game further behind.
+     * @param policy   what to do with a new frame when the queue is full,
+     *                 or null to turn pipelining off
+     */
+    public void setPipelinedRendering(int capacity, FrameQueue.Policy policy) {
+        assert capacity > 0;
+        synchronized (lifecycleLock) {
+            pipelineCapacity = capacity;
+            pipelinePolicy = policy;
+        }
+    }
+
+    /**
+     * @return true if pipelined rendering has been turned on
+     */
+    public boolean isPipelinedRendering() {
+        synchronized (lifecycleLock) {
+            return pipelinePolicy != null;
+        }
+    }
+
+    /**
+     * @return the queue of frames waiting to be drawn in the current or
+     *         last run, for its depth and render lag, or null if it was
+     *         not pipelined
+     */
+    public FrameQueue<?> getFrameQueue() {
+        return frameQueue;
+    }
+
+    /**
+     * Starts or stops recording how long ticks, painting and sleeping take.
+     *
+     * @param metrics where to record the times, or null to stop recording
+     */
+    public void setMetrics(FrameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return where tick, paint and sleep times are recorded, or null
+     */
+    public FrameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the most ticks that may be run back to back when the animation
+     * falls behind. Any time owed beyond that is dropped, so a long stall
+     * does not turn into a burst of fast-forwarded frames.
+     *
+     * @param maxCatchUpTicks the catch-up limit. Should be > 0.
+     */
+    public void setMaxCatchUpTicks(int maxCatchUpTicks) {
+        assert maxCatchUpTicks > 0;
+        this.maxCatchUpTicks = maxCatchUpTicks;
     }
 
     /**
@@ -60,17 +438,419 @@ public abstract class AbstractAnimation extends JComponent implements Runnable {
      * to start the animation, call the start() method.
      */
     public void run() {
+        // Start with a full tick owed so the first frame runs right away.
+        long previous = System.nanoTime();
+        long accumulator = tickNanos;
+        long nextRender = previous;
+
         // Update the display periodically.
         try {
             while (Thread.currentThread() == animationThread) {
-                nextFrame();
-                repaint();
+                if (state == State.PAUSED && waitWhilePaused()) {
+                    // start timing afresh rather than catching up
+                    previous = System.nanoTime();
+                    accumulator = 0;
+                    nextRender = previous;
+                }
+                runPendingTasks();
+
+                long now = System.nanoTime();
+                accumulator += now - previous;
+                previous = now;
+
+                // Run one tick for every tickNanos that has passed, up to
+                // the catch-up limit, unless a tick pauses the animation.
+                int ticks = 0;
+                while (accumulator >= tickNanos && ticks < maxCatchUpTicks
+                        && state == State.RUNNING) {
+                    GameEvents.TickEvent event = null;
+                    if (GameEvents.TICK.isEnabled()) {
+                        event = new GameEvents.TickEvent();
+                        event.tick = tickCount;
+                        event.catchingUp = ticks > 0;
+                        event.begin();
+                    }
+                    long tickStart = System.nanoTime();
+                    nextFrame();
+                    recordTick(System.nanoTime() - tickStart);
+                    if (event != null) {
+                        event.commit();
+                    }
+                    accumulator -= tickNanos;
+                    ticks++;
+                }
+
+                // Too far behind to catch up: forget the rest of the backlog.
+                // A backlog left by pausing is forgotten on resuming instead.
+                if (accumulator >= tickNanos && state == State.RUNNING) {
+                    droppedTicks += accumulator / tickNanos;
+                    accumulator %= tickNanos;
+                }
+                tickStartNanos = now - accumulator;
 
-                Thread.sleep(pauseTime);
+                if (now - nextRender >= 0) {
+                    render();
+                    nextRender += renderNanos;
+                    if (now - nextRender >= 0) {
+                        nextRender = now + renderNanos;
+                    }
+                }
+
+                // Sleep until whichever comes first, the next tick or the
+                // next repaint.
+                long nextTick = now + tickNanos - accumulator;
+                long wake = nextTick - nextRender < 0 ? nextTick : nextRender;
+                long sleep = wake - System.nanoTime();
+                if (sleep > 0) {
+                    GameEvents.SleepEvent event = null;
+                    if (GameEvents.SLEEP.isEnabled()) {
+                        event = new GameEvents.SleepEvent();
+                        event.begin();
+                    }
+                    long sleepStart = System.nanoTime();
+                    Thread.sleep(sleep / NANOS_PER_MILLI,
+                            (int) (sleep % NANOS_PER_MILLI));
+                    long slept = System.nanoTime() - sleepStart;
+                    FrameMetrics current = metrics;
+                    if (current != null) {
+                        current.record(FrameMetrics.Phase.SLEEP, slept);
+                    }
+                    if (event != null) {
+                        event.requested = sleep;
+                        event.overshoot = Math.max(0, slept - sleep);
+                        event.commit();
+                    }
+                }
             }
         } catch (InterruptedException e) {
             // Stop the animation if interrupted.
         }
+        // the last tick is over, so anything still waiting can run now
+        runPendingTasks();
+    }
+
+    /**
+     * Runs the code given to runBetweenTicks so far, oldest first.
+     */
+    private void runPendingTasks() {
+        Runnable task;
+        while ((task = pendingTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    /**
+     * Blocks the animation thread while the animation is paused.
+     *
+     * @return true if it was paused, false if it had been resumed or stopped
+     *         already
+     * @throws InterruptedException if stopped while paused
+     */
+    private boolean waitWhilePaused() throws InterruptedException {
+        synchronized (lifecycleLock) {
+            boolean waited = false;
+            while (state == State.PAUSED && Thread.currentThread() == animationThread) {
+                lifecycleLock.wait();
+                waited = true;
+            }
+            return waited;
+        }
+    }
+
+    /**
+     * Shows the next frame, drawing it straight away when rendering actively
+     * and asking Swing to repaint otherwise.
+     */
+    private void render() throws InterruptedException {
+        FrameQueue<Object> queue = frameQueue;
+        if (queue != null && activeRendering && isCanvasReady(canvas)) {
+            handOff(queue);
+        } else if (!activeRendering || !renderActively(null)) {
+            repaintFrame();
+        }
+    }
+
+    /**
+     * Captures a frame and puts it on the queue for the render thread.
+     *
+     * @param queue the queue to put it on
+     * @throws InterruptedException if stopped while waiting for room
+     */
+    private void handOff(FrameQueue<Object> queue) throws InterruptedException {
+        long start = System.nanoTime();
+        captureFrame(queue.claim());
+        queue.publish();
+        FrameMetrics current = metrics;
+        if (current != null) {
+            current.record(FrameMetrics.Phase.HANDOFF, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Draws frames from the frame queue until the render thread is
+     * stopped. This runs on the render thread.
+     *
+     * @param queue the queue to take frames from
+     */
+    private void renderFrames(FrameQueue<Object> queue) {
+        try {
+            while (Thread.currentThread() == renderThread) {
+                Object frame = queue.take();
+                FrameMetrics current = metrics;
+                if (current != null) {
+                    current.record(FrameMetrics.Phase.RENDER_LAG, queue.getLastLagNanos());
+                }
+                renderActively(frame);
+                queue.release();
+            }
+        } catch (InterruptedException e) {
+            // Stop drawing if interrupted.
+        }
+    }
+
+    /**
+     * Makes an empty frame for the frame queue when rendering is
+     * pipelined. By default frames hold nothing and paintComponent is
+     * used to draw them; subclasses that pipeline should return something
+     * captureFrame can fill.
+     *
+     * @return a new frame, or null
+     */
+    protected Object createFrame() {
+        return null;
+    }
+
+    /**
+     * Copies what is needed to draw the animation into a frame, so the
+     * render thread can draw it while the next tick runs. This runs on the
+     * animation thread, between ticks.
+     *
+     * @param frame a frame made by createFrame, which may hold an older
+     *              frame's contents
+     */
+    protected void captureFrame(Object frame) {
+        // Nothing to copy by default
+    }
+
+    /**
+     * Draws a frame captured by captureFrame. This runs on the render
+     * thread, so it should only look at the frame and not at anything the
+     * next tick may be changing. By default it calls paintComponent.
+     *
+     * @param g     the graphics context to draw on
+     * @param frame the frame to draw
+     */
+    protected void paintFrame(Graphics g, Object frame) {
+        paintComponent(g);
+    }
+
+    /**
+     * Asks Swing to repaint the parts of the animation that changed since
+     * the last frame. By default the whole component is repainted;
+     * subclasses that know what moved can repaint less.
+     */
+    protected void repaintFrame() {
+        repaint();
+    }
+
+    /**
+     * @param target the canvas frames are drawn on, or null
+     * @return true if the canvas is there and can be drawn on
+     */
+    private static boolean isCanvasReady(Canvas target) {
+        return target != null && target.isDisplayable()
+                && target.getWidth() > 0 && target.getHeight() > 0;
+    }
+
+    /**
+     * Draws a frame onto the canvas and flips it onto the screen, drawing
+     * again if the buffer contents were lost along the way.
+     *
+     * @param frame the frame from the frame queue to draw with paintFrame,
+     *              or null to draw with paintComponent
+     * @return false if the canvas cannot be drawn on yet
+     */
+    private boolean renderActively(Object frame) {
+        Canvas target = canvas;
+        if (!isCanvasReady(target)) {
+            return false;
+        }
+        BufferStrategy strategy = target.getBufferStrategy();
+        if (strategy == null) {
+            target.createBufferStrategy(BUFFER_COUNT);
+            strategy = target.getBufferStrategy();
+        }
+
+        long start = System.nanoTime();
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    g.setColor(getBackground());
+                    g.fillRect(0, 0, target.getWidth(), target.getHeight());
+                    if (frame != null) {
+                        paintFrame(g, frame);
+                    } else {
+                        paintComponent(g);
+                    }
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+        recordFrame(start);
+        return true;
+    }
+
+    /**
+     * Paints the animation when Swing repaints it, timing how long it
+     * takes. While rendering actively the canvas covers the component, so
+     * nothing is painted here.
+     *
+     * @param g the graphics context to paint on
+     */
+    @Override
+    public void paint(Graphics g) {
+        if (activeRendering && canvas != null && canvas.isDisplayable()) {
+            return;
+        }
+        long start = System.nanoTime();
+        super.paint(g);
+        recordFrame(start);
+    }
+
+    /**
+     * Adds one frame to the frame histograms.
+     *
+     * @param start when drawing the frame started, from System.nanoTime
+     */
+    private void recordFrame(long start) {
+        long end = System.nanoTime();
+        frameTimes.record(end - start);
+        FrameMetrics current = metrics;
+        if (current != null) {
+            current.record(FrameMetrics.Phase.PAINT, end - start);
+        }
+        long previous = lastFrameEnd;
+        if (previous != 0) {
+            frameIntervals.record(end - previous);
+        }
+        lastFrameEnd = end;
+    }
+
+    /**
+     * Adds one tick's running time to the tick statistics.
+     *
+     * @param elapsed how long nextFrame took, in nanoseconds
+     */
+    private void recordTick(long elapsed) {
+        FrameMetrics current = metrics;
+        if (current != null) {
+            current.record(FrameMetrics.Phase.TICK, elapsed);
+        }
+        tickCount++;
+        totalTickNanos += elapsed;
+        if (elapsed > tickNanos) {
+            overrunCount++;
+        }
+        if (elapsed > maxTickNanos) {
+            maxTickNanos = elapsed;
+        }
+    }
+
+    /**
+     * @return the number of ticks run so far
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * @return the number of ticks whose nextFrame took longer than a tick
+     */
+    public long getOverrunCount() {
+        return overrunCount;
+    }
+
+    /**
+     * @return the number of ticks skipped because the catch-up limit was hit
+     */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    /**
+     * @return the longest time spent in one nextFrame call, in nanoseconds
+     */
+    public long getMaxTickNanos() {
+        return maxTickNanos;
+    }
+
+    /**
+     * @return the average time spent in nextFrame, in nanoseconds
+     */
+    public long getAverageTickNanos() {
+        long ticks = tickCount;
+        return ticks == 0 ? 0 : totalTickNanos / ticks;
+    }
+
+    /**
+     * Works out how far through the current tick it is, for drawing objects
+     * part way between their previous and current states.
+     *
+     * @return how far through the tick, from 0 just after a tick ran to 1
+     *         when the next one is due
+     */
+    public double getInterpolationAlpha() {
+        return getInterpolationAlpha(tickStartNanos);
+    }
+
+    /**
+     * Works out how far through a tick it is, for drawing a frame captured
+     * earlier. The time since the tick started is taken as a fraction of a
+     * tick, so a frame drawn after the next tick has run is drawn at the
+     * end of its own tick rather than back at the start.
+     *
+     * @param tickStart when the tick started, from getTickStartNanos when
+     *                  the frame was captured
+     * @return how far through that tick, from 0 to 1
+     */
+    public double getInterpolationAlpha(long tickStart) {
+        long owed = System.nanoTime() - tickStart;
+        return Math.max(0, Math.min(1, (double) owed / tickNanos));
+    }
+
+    /**
+     * @return when time started being owed to the next tick, from
+     *         System.nanoTime. Frames captured between ticks keep this to
+     *         work out how far through the tick they are drawn.
+     */
+    public long getTickStartNanos() {
+        return tickStartNanos;
+    }
+
+    /**
+     * @return how long each frame took to draw, in nanoseconds
+     */
+    public FrameTimeHistogram getFrameTimes() {
+        return frameTimes;
+    }
+
+    /**
+     * @return the time from each frame being finished to the next, in
+     *         nanoseconds
+     */
+    public FrameTimeHistogram getFrameIntervals() {
+        return frameIntervals;
+    }
+
+    /**
+     * @return the length of one tick, in nanoseconds
+     */
+    public long getTickNanos() {
+        return tickNanos;
     }
 
     /**
@@ -1,6 +1,7 @@
 package animation;
 import java.awt.Graphics2D;
 import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
 
 /**
  * An object that changes during animation.
@@ -25,4 +26,34 @@ public interface AnimatedObject {
      * @return the shape located where we want it to appear
      */
     public Shape getShape();
+    
+    /**
+     * Draws the object part way between where it was before the last tick
+     * and where it is now, so movement looks smooth when frames are drawn
+     * more often than ticks. Objects that do not keep their previous state
+     * are drawn where they are now.
+     * @param g the graphics context to draw on
+     * @param alpha how far through the tick, from 0 for the previous state
+     *              to 1 for the current one
+     */
+    public default void paint(Graphics2D g, double alpha) {
+        paint(g);
+    }
+
+    /**
+     * Remembers the object's current state as its previous state. Called
+     * at the start of each tick, before anything moves.
+     */
+    public default void savePreviousState() {
+    }
+
+    /**
+     * Returns the bounding box of the object's shape. Objects that keep
+     * their bounds around can return the same rectangle every time, so
+     * callers should not change it.
+     * @return the bounding box of the shape
+     */
+    public default Rectangle2D getBounds2D() {
+        return getShape().getBounds2D();
+    }
 }
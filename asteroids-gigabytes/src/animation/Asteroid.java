@@ -3,214 +3,193 @@ package animation;
 import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.awt.Shape;
 
 /**
- * has asteroid movement and animation. 
- * asteroid will move at a random speed and direction in a straight line, 
- * asteroid will be generated in a random location, 
+ * has asteroid movement and animation.
+ * asteroid will move at a random speed and direction in a straight line,
+ * asteroid will be generated in a random location,
  * asteroid will wrap around screen upon reaching an edge
+ *
+ * The asteroid's state lives in a slot of an AsteroidField. This object is
+ * a handle onto that slot, so it can be used anywhere an AnimatedObject is
+ * expected.
  */
 public class Asteroid implements AnimatedObject {
-    Random rand = new Random();
+    // The field that holds this asteroid's state
+    private final AsteroidField field;
 
-    private final int ASTEROID_HEIGHT;
+    // The slot of this asteroid in the field
+    private final int slot;
 
-    // the width of the asteroid: max of 15 pixels smaller than the height
-    private final int ASTEROID_WIDTH;
+    // The asteroid shape, updated from the field when asked for
+    private Ellipse2D asteroid = new Ellipse2D.Double();
 
-    // The starting left edge of the asteroid, 600 is the amount of pixels in x
-    // direction
-    private int x;
-    
-    // The starting top of the asteroid, 600 is the amount of pixels in y
-    // direction
-    private int y;
-
-    // how fast asteroid moves in x, from 1-3
-    private int x_move = 1 + rand.nextInt(3);
-
-    // how fast asteroid moves in y, from 1-3
-    private int y_move = 1 + rand.nextInt(3);
-
-    // determines if x is moving left or right
-    private boolean isXPositive = rand.nextBoolean();
-
-    // determines if y is moving up or down
-    private boolean isYPositive = rand.nextBoolean();
-
-    // The animation that this object is part of
-    private AbstractAnimation animation;
-
-    // The asteroid shape
-    private Ellipse2D asteroid;
-
-    // turns true when asteroid is destroyed
-    private boolean destroyed = false;
-
-    // how many frames the asteroid has been destroyed for
-    private int lengthDestroy = 0;
-    
-    //size level of asteroid- 1 is small, 2 is medium, 3 is large
-    int size;
+    // The bounding box of the shape, updated from the field when asked for
+    private Rectangle2D.Double bounds = new Rectangle2D.Double();
 
     /**
-     * Creates the asteroid
-     * 
-     * @param animation the animation this object is part of
+     * Creates the asteroid in a field of its own
+     *
+     * @param playfield the playfield this object moves in
      */
-    public Asteroid(AbstractAnimation animation) {
-        this.animation = animation;
-        generateLocation();
-        //random asteroid size- max size of 80, min size of 30
-        ASTEROID_HEIGHT = 30 + rand.nextInt(50);
-        ASTEROID_WIDTH= ASTEROID_HEIGHT - rand.nextInt(15);
-        //finds size level
-        findSize();
-        // makes ellipse shaped asteroid:
-        asteroid = new Ellipse2D.Double(x, y, ASTEROID_HEIGHT, ASTEROID_WIDTH);
-    }
-    
-    public Asteroid(AbstractAnimation animation, int size, int xLocation, int yLocation) {
-        this.animation=animation;
-        x=xLocation;
-        y=yLocation;
-        if(size==1) {
-            //max size of 40
-            ASTEROID_HEIGHT = 30 + rand.nextInt(10);
-        }
-        else {
-            //min size 41, max size 60
-            ASTEROID_HEIGHT = 41 + rand.nextInt(20);
-        }
-        
-        //makes width
-        ASTEROID_WIDTH= ASTEROID_HEIGHT - rand.nextInt(15);
-        //finds size level
-        findSize();
-        // makes ellipse shaped asteroid:
-        asteroid = new Ellipse2D.Double(x, y, ASTEROID_HEIGHT, ASTEROID_WIDTH);
+    public Asteroid(Playfield playfield) {
+        this(new AsteroidField(playfield, 1, new Random()));
     }
 
-    @Override
-    public void nextFrame() {
-
-        // how the asteroid acts when destroyed
-        if (destroyed) {
-            // blinks twice before disappearing
-            if (lengthDestroy < 5
-                    || (lengthDestroy < 15 && lengthDestroy > 10)) {
-                asteroid.setFrame(x, y, ASTEROID_HEIGHT, ASTEROID_WIDTH);
-            }
-
-            else {
-                asteroid.setFrame(0, 0, 0, 0);
-            }
-            lengthDestroy++;
-        }
+    /**
+     * Creates a random asteroid in a field
+     *
+     * @param field the field the asteroid is added to
+     */
+    public Asteroid(AsteroidField field) {
+        this(field, field.spawn());
+        field.attach(slot, this);
+    }
 
-        // how the asteroid acts otherwise
-        else {
-            checkIfEdge();
-            // move normally
-            // x increases if positive, decreases if negative
-            if (isXPositive) {
-                x += x_move;
-            } else {
-                x -= x_move;
-            }
-            // y increases if positive, decreases if negative
-            if (isYPositive) {
-                y += y_move;
-            } else {
-                y -= y_move;
-            }
-            asteroid.setFrame(x, y, ASTEROID_HEIGHT, ASTEROID_WIDTH);
-        }
+    /**
+     * Creates an asteroid of a given size level at a location, in a field of
+     * its own
+     *
+     * @param playfield the playfield this object moves in
+     * @param size      1 for a small asteroid, otherwise medium
+     * @param xLocation the left edge of the asteroid
+     * @param yLocation the top edge of the asteroid
+     */
+    public Asteroid(Playfield playfield, int size, int xLocation, int yLocation) {
+        this(new AsteroidField(playfield, 1, new Random()), size, xLocation, yLocation);
     }
 
     /**
-     * checks to see if asteroid is over edges of window: wraps around to other
-     * side if it is
+     * Creates an asteroid of a given size level at a location in a field
+     *
+     * @param field     the field the asteroid is added to
+     * @param size      1 for a small asteroid, otherwise medium
+     * @param xLocation the left edge of the asteroid
+     * @param yLocation the top edge of the asteroid
      */
-    private void checkIfEdge() {
-        // Check if the right edge of the asteroid is beyond the right
-        // edge of the window. If it is, move it to the left edge
-        if (x + ASTEROID_WIDTH > animation.getWidth()) {
-            x = 0;
-        }
-        // Check if the left edge of the asteroid is beyond the left
-        // edge of the window. If it is, move it to the right edge
-        else if (x < 0) {
-            x = animation.getWidth() - ASTEROID_WIDTH;
-        }
+    public Asteroid(AsteroidField field, int size, int xLocation, int yLocation) {
+        this(field, field.spawn(size, xLocation, yLocation));
+        field.attach(slot, this);
+    }
 
-        // Check if bottom edge of the asteroid is below the
-        // edge of the window. If it is, put it at the top
+    /**
+     * Creates a handle for an asteroid that is already in a field
+     *
+     * @param field the field holding the asteroid
+     * @param slot  the slot of the asteroid in the field
+     */
+    Asteroid(AsteroidField field, int slot) {
+        this.field = field;
+        this.slot = slot;
+    }
 
-        if (y + ASTEROID_HEIGHT > animation.getHeight()) {
-            y = 0;
-        }
-        // check to see if top edge of asteroid is above
-        // the top of the window. If it is, move to the bottom
-        else if (y < 0) {
-            y = animation.getHeight() - ASTEROID_HEIGHT;
-        }
+    @Override
+    public void nextFrame() {
+        field.update(slot, 1);
     }
 
     @Override
     public void paint(Graphics2D g) {
-        if(destroyed) {
+        if(isDestroyed()) {
             g.setColor(Color.DARK_GRAY);
         }
         else {
             g.setColor(Color.GRAY);
         }
+        g.fill(getShape());
+
+    }
+
+    @Override
+    public void paint(Graphics2D g, double alpha) {
+        if (!field.isVisible(slot)) {
+            return;
+        }
+        g.setColor(isDestroyed() ? Color.DARK_GRAY : Color.GRAY);
+        asteroid.setFrame(field.getInterpolatedX(slot, alpha),
+                field.getInterpolatedY(slot, alpha),
+                field.getHeight(slot), field.getWidth(slot));
         g.fill(asteroid);
+    }
 
+    @Override
+    public void savePreviousState() {
+        field.savePrevious(slot);
     }
 
     @Override
     public Shape getShape() {
+        // blinks twice before disappearing once destroyed
+        if (field.isVisible(slot)) {
+            asteroid.setFrame(field.getX(slot), field.getY(slot),
+                    field.getHeight(slot), field.getWidth(slot));
+        } else {
+            asteroid.setFrame(0, 0, 0, 0);
+        }
         return asteroid;
     }
 
+    /**
+     * Returns the bounding box of the shape without making a new object.
+     * The same object is returned every time, so it must not be kept or
+     * changed.
+     * @return the bounding box of the asteroid
+     */
+    @Override
+    public Rectangle2D getBounds2D() {
+        if (field.isVisible(slot)) {
+            bounds.setRect(field.getX(slot), field.getY(slot),
+                    field.getHeight(slot), field.getWidth(slot));
+        } else {
+            bounds.setRect(0, 0, 0, 0);
+        }
+        return bounds;
+    }
+
     /**
      * destroys asteroids
-     * @return the list of new asteroids, list will be empty if no new asteroids are generated 
+     * @return the list of new asteroids, list will be empty if no new asteroids are generated
      */
     public List<Asteroid> destroy() {
-        destroyed = true;
         List<Asteroid> newAsteroids =new ArrayList<>();
-        if(size==2 || size==3) {
-            newAsteroids.add(new Asteroid(animation, size-1, x, y));
-            newAsteroids.add(new Asteroid(animation, size-1, x, y));
-        }
+        destroy(newAsteroids);
         return newAsteroids;
     }
-    
-    private void findSize() {
-        //asteroid is less than 40, small
-        if( ASTEROID_HEIGHT< 40) {
-            size=1;
-        }
-        //asteroid is bigger than 40 and smaller than 60, medium
-        else if(ASTEROID_HEIGHT< 60) {
-            size=2;
-        }
-        //otherwise, asteroid is bigger than 60 and large sized
-        else {
-            size=3;
+
+    /**
+     * destroys asteroids, adding any new asteroids it breaks into to a list
+     * the caller keeps, so nothing is allocated once the field is big enough
+     * @param newAsteroids the list the new asteroids are added to, or null
+     *                     if the caller does not need them
+     * @return the number of new asteroids
+     */
+    public int destroy(List<Asteroid> newAsteroids) {
+        field.destroy(slot);
+        int size = field.getSize(slot);
+        if(size==2 || size==3) {
+            int x = (int) field.getX(slot);
+            int y = (int) field.getY(slot);
+            int first = field.spawn(size-1, x, y);
+            int second = field.spawn(size-1, x, y);
+            if (newAsteroids != null) {
+                newAsteroids.add(field.get(first));
+                newAsteroids.add(field.get(second));
+            }
+            return 2;
         }
+        return 0;
     }
-    
+
     /**
      * @return the point worth of the asteroid
      */
     public int score() {
+        int size = field.getSize(slot);
         if (size==1) {
             return 100;
         }
@@ -219,44 +198,36 @@ public class Asteroid implements AnimatedObject {
         }
         return 20;
     }
-    
+
     /**
-     * 
+     *
      * @return true when the asteroid has been destroyed
      */
     public boolean isDestroyed() {
-        boolean temp = destroyed;
-        return temp;
-    }
-    /**
-     * generates in a location that isn't on top of the spaceship
-     * spaceship is at 300, 300 and is 40 long at largest
-     */
-    private void generateLocation() {
-        boolean left= rand.nextBoolean();
-        boolean above=rand.nextBoolean();
-        if(left) {
-            x=rand.nextInt(280)-ASTEROID_HEIGHT;
-        }
-        else {
-            x=320+rand.nextInt(280) + ASTEROID_HEIGHT;
-        }
-        if(above) {
-            y=rand.nextInt(280)-ASTEROID_WIDTH;
-        }
-        else {
-            y=320+rand.nextInt(280)+ASTEROID_WIDTH;
-        }
+        return field.isDestroyed(slot);
     }
-    
+
     /**
      * Method used by game class to increase
      * game difficulty after level change.
      * @param change int representing level/speed change
      */
     public void changeSpeed(int change) {
-        x_move += change;
-        y_move += change;
+        field.changeSpeed(slot, change);
+    }
+
+    /**
+     * @return the field that holds this asteroid's state
+     */
+    public AsteroidField getField() {
+        return field;
+    }
+
+    /**
+     * @return the slot of this asteroid in its field
+     */
+    public int getSlot() {
+        return slot;
     }
 
 }
@@ -0,0 +1,964 @@
+package animation;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Holds the state of many asteroids in parallel arrays, one slot per
+ * asteroid, so a whole field of asteroids can be moved in one tight loop.
+ *
+ * Slots are handed out by spawn and given back with release. Released slots
+ * are kept on a free list and reused by later spawns, so a field that has
+ * reached its working size does not allocate. Each slot also has an
+ * Asteroid handle that reads and writes the arrays, for code that wants to
+ * treat an asteroid as an AnimatedObject.
+ *
+ * The field keeps count of the asteroids that have not been destroyed and
+ * a list of the ones still blinking, so a game can tell when a level is
+ * cleared without looking at every slot. retireFinished releases the
+ * asteroids that have finished blinking, so the field only holds the
+ * asteroids still in play.
+ *
+ * Moving a large field can be spread over several threads with
+ * setParallelUpdate. Each slot is moved using only its own state and the
+ * size of the playfield, so the result is exactly the same as moving the
+ * slots one after another. Nothing is spawned or destroyed while moving;
+ * that happens afterwards on the calling thread, in the order it always
+ * has.
+ *
+ * For very large playfields, setLevelOfDetail moves asteroids far from a
+ * focus point, usually the ship, only every few ticks. Each tick, the
+ * asteroids near the focus are moved, along with one stripe of the far
+ * ones, which are moved by every tick since they were last moved. Far
+ * asteroids that come near join the near list and are moved every tick
+ * from then on. The cost of a tick then depends mostly on how many
+ * asteroids are near the focus.
+ */
+public class AsteroidField {
+    // Starting number of slots
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Timer value for an asteroid that has not been destroyed
+    private static final double ALIVE = -1;
+
+    // Ticks a destroyed asteroid blinks for before it is gone for good
+    private static final double BLINK_TICKS = 16;
+
+    // Default number of slots below which a field is always moved on the
+    // calling thread
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    // Fewest slots moved by one parallel task
+    private static final int MIN_CHUNK = 1024;
+
+    // The playfield that the asteroids move in
+    private Playfield playfield;
+
+    // Shared source of random numbers for every asteroid in the field
+    private final Random rand;
+
+    // left and top edges of each asteroid
+    private double[] x;
+    private double[] y;
+
+    // left and top edges of each asteroid before it last moved, after any
+    // wrapping, for drawing it part way through a tick and for checking
+    // what a shot passed on its way
+    private double[] previousX;
+    private double[] previousY;
+
+    // the most pixels any asteroid has moved across or down in one tick
+    private int maxMove;
+
+    // pixels moved per tick in x and y, negative for left or up
+    private int[] xMove;
+    private int[] yMove;
+
+    // width and height of each asteroid
+    private int[] width;
+    private int[] height;
+
+    // size level of each asteroid- 1 is small, 2 is medium, 3 is large
+    private byte[] size;
+
+    // ticks since each asteroid was destroyed, ALIVE if it has not been
+    private double[] destroyTimer;
+
+    // true for slots that hold an asteroid
+    private boolean[] used;
+
+    // handle objects for the slots, created when first asked for
+    private Asteroid[] handles;
+
+    // slots that have been released and can be reused
+    private int[] freeSlots;
+    private int freeCount;
+
+    // every used slot is below this index
+    private int slotLimit;
+
+    // number of slots in use
+    private int count;
+
+    // number of slots holding an asteroid that has not been destroyed
+    private int liveCount;
+
+    // slots of the destroyed asteroids that have not been released yet
+    private int[] dyingSlots;
+    private int dyingCount;
+
+    // pool that large fields are moved on, or null to always move on the
+    // calling thread
+    private ForkJoinPool pool;
+
+    // fields with fewer slots than this are moved on the calling thread
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    // ticks between moves of asteroids far from the focus, 1 when level of
+    // detail is off
+    private int farInterval = 1;
+
+    // how far from the focus an asteroid still counts as near
+    private double nearDistance;
+
+    // number of ticks the field has been moved with level of detail on
+    private long currentTick;
+
+    // the tick each asteroid was last moved to
+    private long[] lastTick;
+
+    // slots of the asteroids near the focus, and each slot's place in that
+    // list or -1 if it is far
+    private int[] nearSlots;
+    private int[] nearIndex;
+    private int nearCount;
+
+    /**
+     * Creates an empty field.
+     *
+     * @param playfield the playfield the asteroids move in
+     */
+    public AsteroidField(Playfield playfield) {
+        this(playfield, DEFAULT_CAPACITY, new Random());
+    }
+
+    /**
+     * Creates an empty field that takes its random numbers from a given
+     * source, so the same seed always gives the same asteroids.
+     *
+     * @param playfield the playfield the asteroids move in
+     * @param rand      the source of random numbers
+     */
+    public AsteroidField(Playfield playfield, Random rand) {
+        this(playfield, DEFAULT_CAPACITY, rand);
+    }
+
+    /**
+     * Creates an empty field with room for a number of asteroids. The field
+     * grows if more are spawned.
+     *
+     * @param playfield the playfield the asteroids move in
+     * @param capacity  the number of asteroids to make room for
+     * @param rand      the source of random numbers
+     */
+    public AsteroidField(Playfield playfield, int capacity, Random rand) {
+        this.playfield = playfield;
+        this.rand = rand;
+        capacity = Math.max(capacity, 1);
+        x = new double[capacity];
+        y = new double[capacity];
+        previousX = new double[capacity];
+        previousY = new double[capacity];
+        xMove = new int[capacity];
+        yMove = new int[capacity];
+        width = new int[capacity];
+        height = new int[capacity];
+        size = new byte[capacity];
+        destroyTimer = new double[capacity];
+        used = new boolean[capacity];
+        handles = new Asteroid[capacity];
+        freeSlots = new int[capacity];
+        dyingSlots = new int[capacity];
+        lastTick = new long[capacity];
+        nearSlots = new int[capacity];
+        nearIndex = new int[capacity];
+        Arrays.fill(nearIndex, -1);
+    }
+
+    /**
+     * Adds an asteroid of random size and speed, in a random location that
+     * isn't on top of the spaceship.
+     *
+     * @return the slot of the new asteroid
+     */
+    public int spawn() {
+        int slot = allocate();
+        randomMovement(slot);
+        generateLocation(slot);
+        //random asteroid size- max size of 80, min size of 30
+        height[slot] = 30 + rand.nextInt(50);
+        width[slot] = height[slot] - rand.nextInt(15);
+        //finds size level
+        findSize(slot);
+        savePrevious(slot);
+        return slot;
+    }
+
+    /**
+     * Adds an asteroid of a given size level at a given location, moving at
+     * a random speed.
+     *
+     * @param sizeLevel 1 for a small asteroid, otherwise medium
+     * @param xLocation the left edge of the asteroid
+     * @param yLocation the top edge of the asteroid
+     * @return the slot of the new asteroid
+     */
+    public int spawn(int sizeLevel, int xLocation, int yLocation) {
+        int slot = allocate();
+        randomMovement(slot);
+        x[slot] = xLocation;
+        y[slot] = yLocation;
+        if (sizeLevel == 1) {
+            //max size of 40
+            height[slot] = 30 + rand.nextInt(10);
+        } else {
+            //min size 41, max size 60
+            height[slot] = 41 + rand.nextInt(20);
+        }
+        //makes width
+        width[slot] = height[slot] - rand.nextInt(15);
+        //finds size level
+        findSize(slot);
+        savePrevious(slot);
+        return slot;
+    }
+
+    /**
+     * Removes an asteroid from the field. Its slot will be reused by a
+     * later spawn.
+     *
+     * @param slot the asteroid to remove
+     */
+    public void release(int slot) {
+        assert used[slot];
+        if (destroyTimer[slot] == ALIVE) {
+            liveCount--;
+        } else {
+            for (int i = 0; i < dyingCount; i++) {
+                if (dyingSlots[i] == slot) {
+                    dyingSlots[i] = dyingSlots[--dyingCount];
+                    break;
+                }
+            }
+        }
+        free(slot);
+    }
+
+    /**
+     * Releases every destroyed asteroid that has finished blinking. This
+     * looks only at the asteroids that are blinking, not the whole field.
+     *
+     * @return the number of asteroids released
+     */
+    public int retireFinished() {
+        int retired = 0;
+        int i = 0;
+        while (i < dyingCount) {
+            int slot = dyingSlots[i];
+            if (destroyTimer[slot] >= BLINK_TICKS) {
+                dyingSlots[i] = dyingSlots[--dyingCount];
+                free(slot);
+                retired++;
+            } else {
+                i++;
+            }
+        }
+        return retired;
+    }
+
+    /**
+     * Puts a slot on the free list, once it has been taken off the live
+     * count or the dying list.
+     */
+    private void free(int slot) {
+        removeNear(slot);
+        used[slot] = false;
+        count--;
+        freeSlots[freeCount++] = slot;
+        while (slotLimit > 0 && !used[slotLimit - 1]) {
+            slotLimit--;
+        }
+    }
+
+    /**
+     * Removes every asteroid from the field.
+     */
+    public void clear() {
+        Arrays.fill(used, 0, slotLimit, false);
+        Arrays.fill(nearIndex, 0, slotLimit, -1);
+        nearCount = 0;
+        freeCount = 0;
+        slotLimit = 0;
+        count = 0;
+        liveCount = 0;
+        dyingCount = 0;
+    }
+
+    /**
+     * Moves large fields on a pool of threads. Fields with fewer slots than
+     * the threshold are still moved on the calling thread, where splitting
+     * the work up would cost more than it saves.
+     *
+     * @param pool      the pool to move asteroids on, or null to always move
+     *                  them on the calling thread
+     * @param threshold the fewest slots that are moved on the pool
+     */
+    public void setParallelUpdate(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.parallelThreshold = Math.max(threshold, 1);
+    }
+
+    /**
+     * Moves every asteroid in the field forward in time.
+     *
+     * @param dt the number of ticks to move by
+     */
+    public void update(double dt) {
+        int fieldWidth = playfield.getWidth();
+        int fieldHeight = playfield.getHeight();
+        if (pool != null && slotLimit >= parallelThreshold) {
+            int chunk = Math.max(MIN_CHUNK, slotLimit / (4 * pool.getParallelism()));
+            pool.invoke(new UpdateTask(0, slotLimit, chunk, dt, fieldWidth, fieldHeight));
+        } else {
+            update(0, slotLimit, dt, fieldWidth, fieldHeight);
+        }
+    }
+
+    /**
+     * Moves the asteroids in a range of slots.
+     */
+    private void update(int from, int to, double dt, int fieldWidth, int fieldHeight) {
+        for (int slot = from; slot < to; slot++) {
+            if (used[slot]) {
+                step(slot, dt, fieldWidth, fieldHeight);
+            }
+        }
+    }
+
+    /**
+     * Moves a range of slots, splitting it in half until the pieces are
+     * small enough to move directly.
+     */
+    private class UpdateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // the range of slots, from inclusive and to exclusive
+        private final int from;
+        private final int to;
+
+        // the most slots moved without splitting
+        private final int chunk;
+
+        private final double dt;
+        private final int fieldWidth;
+        private final int fieldHeight;
+
+        UpdateTask(int from, int to, int chunk, double dt, int fieldWidth, int fieldHeight) {
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.dt = dt;
+            this.fieldWidth = fieldWidth;
+            this.fieldHeight = fieldHeight;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                update(from, to, dt, fieldWidth, fieldHeight);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new UpdateTask(from, middle, chunk, dt, fieldWidth, fieldHeight),
+                        new UpdateTask(middle, to, chunk, dt, fieldWidth, fieldHeight));
+            }
+        }
+    }
+
+    /**
+     * Turns level of detail on or off. Every asteroid starts out counted as
+     * near and is sorted into near or far the next time its stripe comes
+     * round.
+     *
+     * @param farInterval  the ticks between moves of far asteroids, or 1 to
+     *                     turn level of detail off
+     * @param nearDistance how far from the focus, across or down, an
+     *                     asteroid is still near
+     */
+    public void setLevelOfDetail(int farInterval, double nearDistance) {
+        this.farInterval = Math.max(farInterval, 1);
+        this.nearDistance = nearDistance;
+        nearCount = 0;
+        Arrays.fill(nearIndex, 0, slotLimit, -1);
+        for (int slot = 0; slot < slotLimit; slot++) {
+            lastTick[slot] = currentTick;
+            if (used[slot] && this.farInterval > 1) {
+                addNear(slot);
+            }
+        }
+    }
+
+    /**
+     * @return true if far asteroids are moved less often than near ones
+     */
+    public boolean isLevelOfDetail() {
+        return farInterval > 1;
+    }
+
+    /**
+     * Moves the field forward one tick with level of detail on: every near
+     * asteroid, plus the far asteroids in this tick's stripe. The
+     * asteroids in the stripe are then sorted into near and far again.
+     *
+     * @param focusX the x coordinate of the focus, usually the ship
+     * @param focusY the y coordinate of the focus
+     */
+    public void updateAround(double focusX, double focusY) {
+        int fieldWidth = playfield.getWidth();
+        int fieldHeight = playfield.getHeight();
+        long tick = ++currentTick;
+
+        for (int i = 0; i < nearCount; i++) {
+            int slot = nearSlots[i];
+            step(slot, tick - lastTick[slot], fieldWidth, fieldHeight);
+            lastTick[slot] = tick;
+        }
+
+        for (int slot = (int) (tick % farInterval); slot < slotLimit; slot += farInterval) {
+            if (!used[slot]) {
+                continue;
+            }
+            if (nearIndex[slot] < 0) {
+                step(slot, tick - lastTick[slot], fieldWidth, fieldHeight);
+                lastTick[slot] = tick;
+            }
+            if (isNear(slot, focusX, focusY, fieldWidth, fieldHeight)) {
+                addNear(slot);
+            } else {
+                removeNear(slot);
+            }
+        }
+    }
+
+    /**
+     * Moves every far asteroid up to the tick the near ones are at, for
+     * example before saving or checking the whole field.
+     */
+    public void catchUp() {
+        int fieldWidth = playfield.getWidth();
+        int fieldHeight = playfield.getHeight();
+        for (int slot = 0; slot < slotLimit; slot++) {
+            if (used[slot] && lastTick[slot] != currentTick) {
+                step(slot, currentTick - lastTick[slot], fieldWidth, fieldHeight);
+                lastTick[slot] = currentTick;
+            }
+        }
+    }
+
+    /**
+     * @return the number of asteroids near the focus
+     */
+    public int getNearCount() {
+        return nearCount;
+    }
+
+    /**
+     * @param i which near asteroid, 0 to getNearCount() - 1
+     * @return the slot of the asteroid
+     */
+    public int getNearSlot(int i) {
+        return nearSlots[i];
+    }
+
+    /**
+     * Works out whether an asteroid is close enough to the focus that it
+     * could be seen or hit before its stripe comes round again, measuring
+     * the short way round the playfield.
+     */
+    private boolean isNear(int slot, double focusX, double focusY, int fieldWidth, int fieldHeight) {
+        double dx = Math.abs(x[slot] - focusX) % fieldWidth;
+        dx = Math.min(dx, fieldWidth - dx);
+        double dy = Math.abs(y[slot] - focusY) % fieldHeight;
+        dy = Math.min(dy, fieldHeight - dy);
+        double reach = nearDistance + Math.max(width[slot], height[slot])
+                + (Math.abs(xMove[slot]) + Math.abs(yMove[slot])) * farInterval;
+        return dx <= reach && dy <= reach;
+    }
+
+    /**
+     * Adds a slot to the near list if it is not there already.
+     */
+    private void addNear(int slot) {
+        if (nearIndex[slot] < 0) {
+            nearIndex[slot] = nearCount;
+            nearSlots[nearCount++] = slot;
+        }
+    }
+
+    /**
+     * Takes a slot off the near list, moving the last one into its place.
+     */
+    private void removeNear(int slot) {
+        int index = nearIndex[slot];
+        if (index >= 0) {
+            int last = nearSlots[--nearCount];
+            nearSlots[index] = last;
+            nearIndex[last] = index;
+            nearIndex[slot] = -1;
+        }
+    }
+
+    /**
+     * Moves one asteroid forward in time.
+     *
+     * @param slot the asteroid to move
+     * @param dt   the number of ticks to move by
+     */
+    public void update(int slot, double dt) {
+        step(slot, dt, playfield.getWidth(), playfield.getHeight());
+    }
+
+    /**
+     * Advances one asteroid: a destroyed asteroid counts down its blinking,
+     * any other asteroid wraps around the edges and then moves.
+     */
+    private void step(int slot, double dt, int fieldWidth, int fieldHeight) {
+        if (destroyTimer[slot] != ALIVE) {
+            destroyTimer[slot] += dt;
+            previousX[slot] = x[slot];
+            previousY[slot] = y[slot];
+            return;
+        }
+
+        // Check if the right edge of the asteroid is beyond the right
+        // edge of the window. If it is, move it to the left edge
+        if (x[slot] + width[slot] > fieldWidth) {
+            x[slot] = 0;
+        }
+        // Check if the left edge of the asteroid is beyond the left
+        // edge of the window. If it is, move it to the right edge
+        else if (x[slot] < 0) {
+            x[slot] = fieldWidth - width[slot];
+        }
+
+        // Check if bottom edge of the asteroid is below the
+        // edge of the window. If it is, put it at the top
+        if (y[slot] + height[slot] > fieldHeight) {
+            y[slot] = 0;
+        }
+        // check to see if top edge of asteroid is above
+        // the top of the window. If it is, move to the bottom
+        else if (y[slot] < 0) {
+            y[slot] = fieldHeight - height[slot];
+        }
+
+        // start drawing from here, so a wrap jumps instead of sliding
+        // across the whole screen
+        previousX[slot] = x[slot];
+        previousY[slot] = y[slot];
+
+        x[slot] += xMove[slot] * dt;
+        y[slot] += yMove[slot] * dt;
+    }
+
+    /**
+     * Adds every visible asteroid in the field to a collision grid.
+     *
+     * @param grid the grid to add to
+     */
+    public void index(SpatialHash<Asteroid> grid) {
+        for (int slot = 0; slot < slotLimit; slot++) {
+            if (used[slot] && isVisible(slot)) {
+                // the ellipse is drawn height across and width down
+                grid.insert(get(slot), x[slot], y[slot], height[slot],
+                        width[slot]);
+            }
+        }
+    }
+
+    /**
+     * Adds every visible asteroid near the focus to a collision grid. Only
+     * useful with level of detail on.
+     *
+     * @param grid the grid to add to
+     */
+    public void indexNear(SpatialHash<Asteroid> grid) {
+        for (int i = 0; i < nearCount; i++) {
+            int slot = nearSlots[i];
+            if (isVisible(slot)) {
+                // the ellipse is drawn height across and width down
+                grid.insert(get(slot), x[slot], y[slot], height[slot],
+                        width[slot]);
+            }
+        }
+    }
+
+    /**
+     * Marks an asteroid as destroyed, starting its blinking.
+     *
+     * @param slot the asteroid to destroy
+     */
+    public void destroy(int slot) {
+        if (destroyTimer[slot] == ALIVE) {
+            liveCount--;
+            dyingSlots[dyingCount++] = slot;
+        }
+        destroyTimer[slot] = 0;
+    }
+
+    /**
+     * Speeds up an asteroid in the direction it is already moving.
+     *
+     * @param slot   the asteroid to speed up
+     * @param change the number of pixels per tick to add
+     */
+    public void changeSpeed(int slot, int change) {
+        xMove[slot] += xMove[slot] < 0 ? -change : change;
+        yMove[slot] += yMove[slot] < 0 ? -change : change;
+        noteMove(slot);
+    }
+
+    /**
+     * @return the most pixels any asteroid has moved across or down in one
+     *         tick
+     */
+    public int getMaxMove() {
+        return maxMove;
+    }
+
+    /**
+     * Keeps maxMove up to date with an asteroid's speed.
+     */
+    private void noteMove(int slot) {
+        maxMove = Math.max(maxMove, Math.max(Math.abs(xMove[slot]), Math.abs(yMove[slot])));
+    }
+
+    /**
+     * Returns the handle for a slot, creating it the first time.
+     *
+     * @param slot the slot
+     * @return the asteroid in that slot
+     */
+    public Asteroid get(int slot) {
+        if (handles[slot] == null) {
+            handles[slot] = new Asteroid(this, slot);
+        }
+        return handles[slot];
+    }
+
+    /**
+     * Records a handle made outside the field for one of its slots.
+     */
+    void attach(int slot, Asteroid handle) {
+        handles[slot] = handle;
+    }
+
+    /**
+     * @param slot the slot
+     * @return true if the slot holds an asteroid
+     */
+    public boolean isUsed(int slot) {
+        return used[slot];
+    }
+
+    /**
+     * @return a slot index above every used slot, for looping over the field
+     */
+    public int getSlotLimit() {
+        return slotLimit;
+    }
+
+    /**
+     * @return the number of asteroids in the field
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the number of asteroids in the field that have not been
+     *         destroyed
+     */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    /**
+     * @param slot the asteroid
+     * @return the left edge of the asteroid
+     */
+    public double getX(int slot) {
+        return x[slot];
+    }
+
+    /**
+     * @param slot the asteroid
+     * @return the top edge of the asteroid
+     */
+    public double getY(int slot) {
+        return y[slot];
+    }
+
+    /**
+     * @param slot the asteroid
+     * @return the left edge of the asteroid before it last moved
+     */
+    public double getPreviousX(int slot) {
+        return previousX[slot];
+    }
+
+    /**
+     * @param slot the asteroid
+     * @return the top edge of the asteroid before it last moved
+     */
+    public double getPreviousY(int slot) {
+        return previousY[slot];
+    }
+
+    /**
+     * Works out where an asteroid should be drawn part way through a tick.
+     *
+     * @param slot  the asteroid
+     * @param alpha how far through the tick, from 0 for where it was
+     *              before its last move to 1 for where it is now
+     * @return the left edge of the asteroid
+     */
+    public double getInterpolatedX(int slot, double alpha) {
+        return previousX[slot] + (x[slot] - previousX[slot]) * alpha;
+    }
+
+    /**
+     * Works out where an asteroid should be drawn part way through a tick.
+     *
+     * @param slot  the asteroid
+     * @param alpha how far through the tick, from 0 for where it was
+     *              before its last move to 1 for where it is now
+     * @return the top edge of the asteroid
+     */
+    public double getInterpolatedY(int slot, double alpha) {
+        return previousY[slot] + (y[slot] - previousY[slot]) * alpha;
+    }
+
+    /**
+     * Makes an asteroid's current position its previous one as well, so it
+     * is drawn where it is until it next moves.
+     *
+     * @param slot the asteroid
+     */
+    public void savePrevious(int slot) {
+        previousX[slot] = x[slot];
+        previousY[slot] = y[slot];
+    }
+
+    /**
+     * @param slot the asteroid
+     * @return the width of the asteroid
+     */
+    public int getWidth(int slot) {
+        return width[slot];
+    }
+
+    /**
+     * @param slot the asteroid
+     * @return the height of the asteroid
+     */
+    public int getHeight(int slot) {
+        return height[slot];
+    }
+
+    /**
+     * @param slot the asteroid
+     * @return the size level of the asteroid, 1 to 3
+     */
+    public int getSize(int slot) {
+        return size[slot];
+    }
+
+    /**
+     * @param slot the asteroid
+     * @return true when the asteroid has been destroyed
+     */
+    public boolean isDestroyed(int slot) {
+        return destroyTimer[slot] != ALIVE;
+    }
+
+    /**
+     * A destroyed asteroid blinks twice before disappearing.
+     *
+     * @param slot the asteroid
+     * @return true if the asteroid should be drawn and can be hit
+     */
+    public boolean isVisible(int slot) {
+        double timer = destroyTimer[slot];
+        return timer <= 5 || (timer > 11 && timer < BLINK_TICKS);
+    }
+
+    /**
+     * Finds a free slot, growing the arrays if there is none, and clears
+     * it for a new asteroid.
+     */
+    private int allocate() {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            slot = firstUnusedSlot();
+        }
+        used[slot] = true;
+        count++;
+        liveCount++;
+        if (slot >= slotLimit) {
+            slotLimit = slot + 1;
+        }
+        x[slot] = 0;
+        y[slot] = 0;
+        width[slot] = 0;
+        height[slot] = 0;
+        destroyTimer[slot] = ALIVE;
+        lastTick[slot] = currentTick;
+        nearIndex[slot] = -1;
+        if (farInterval > 1) {
+            // new asteroids are near until their stripe comes round
+            addNear(slot);
+        }
+        return slot;
+    }
+
+    /**
+     * @return the slot just past the used ones, growing the arrays if they
+     *         are full. Only called when the free list is empty, which means
+     *         every slot below slotLimit is in use.
+     */
+    private int firstUnusedSlot() {
+        if (slotLimit == used.length) {
+            grow(used.length * 2);
+        }
+        return slotLimit;
+    }
+
+    /**
+     * Makes room for a number of asteroids up front, with a handle ready
+     * for each, so the field does not allocate until it holds more than
+     * that.
+     *
+     * @param capacity the number of asteroids to make room for
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > used.length) {
+            grow(capacity);
+        }
+        for (int slot = 0; slot < capacity; slot++) {
+            get(slot);
+        }
+    }
+
+    /**
+     * Makes the field's arrays larger.
+     *
+     * @param capacity the new number of slots, more than there are now
+     */
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        xMove = Arrays.copyOf(xMove, capacity);
+        yMove = Arrays.copyOf(yMove, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        size = Arrays.copyOf(size, capacity);
+        destroyTimer = Arrays.copyOf(destroyTimer, capacity);
+        used = Arrays.copyOf(used, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+        dyingSlots = Arrays.copyOf(dyingSlots, capacity);
+        lastTick = Arrays.copyOf(lastTick, capacity);
+        nearSlots = Arrays.copyOf(nearSlots, capacity);
+        int oldCapacity = nearIndex.length;
+        nearIndex = Arrays.copyOf(nearIndex, capacity);
+        Arrays.fill(nearIndex, oldCapacity, capacity, -1);
+    }
+
+    /**
+     * Picks a random speed, from 1-3 pixels per tick, and direction.
+     */
+    private void randomMovement(int slot) {
+        xMove[slot] = 1 + rand.nextInt(3);
+        yMove[slot] = 1 + rand.nextInt(3);
+        // determines if x is moving left or right
+        if (!rand.nextBoolean()) {
+            xMove[slot] = -xMove[slot];
+        }
+        // determines if y is moving up or down
+        if (!rand.nextBoolean()) {
+            yMove[slot] = -yMove[slot];
+        }
+        noteMove(slot);
+    }
+
+    /**
+     * Adds an asteroid of random size and speed anywhere on the playfield
+     * except close to where the ship starts, for filling large worlds.
+     *
+     * @return the slot of the new asteroid
+     */
+    public int spawnScattered() {
+        int slot = spawn();
+        int fieldWidth = playfield.getWidth();
+        int fieldHeight = playfield.getHeight();
+        do {
+            x[slot] = rand.nextInt(fieldWidth);
+            y[slot] = rand.nextInt(fieldHeight);
+        } while (Math.abs(x[slot] - 450) < 200 && Math.abs(y[slot] - 450) < 200);
+        savePrevious(slot);
+        return slot;
+    }
+
+    /**
+     * generates in a location that isn't on top of the spaceship
+     * spaceship is at 300, 300 and is 40 long at largest
+     */
+    private void generateLocation(int slot) {
+        boolean left = rand.nextBoolean();
+        boolean above = rand.nextBoolean();
+        if (left) {
+            x[slot] = rand.nextInt(280) - height[slot];
+        } else {
+            x[slot] = 320 + rand.nextInt(280) + height[slot];
+        }
+        if (above) {
+            y[slot] = rand.nextInt(280) - width[slot];
+        } else {
+            y[slot] = 320 + rand.nextInt(280) + width[slot];
+        }
+    }
+
+    /**
+     * Works out the size level from the height.
+     */
+    private void findSize(int slot) {
+        //asteroid is less than 40, small
+        if (height[slot] < 40) {
+            size[slot] = 1;
+        }
+        //asteroid is bigger than 40 and smaller than 60, medium
+        else if (height[slot] < 60) {
+            size[slot] = 2;
+        }
+        //otherwise, asteroid is bigger than 60 and large sized
+        else {
+            size[slot] = 3;
+        }
+    }
+}
@@ -1,350 +1,623 @@
 package animation;
+import java.awt.AlphaComposite;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Container;
+import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.util.ArrayList;
-import java.util.List;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
 
+import javax.management.JMException;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 /**
  * Creates an Asteroids game similar to the classic Atari game.
  * Users can use keys to move a ship and shoot at asteroids.
+ *
+ * The game itself is played out in an AsteroidsWorld. This class shows the
+ * world in a window, turns key presses into commands for it and steps it
+ * on every frame of the animation.
+ *
+ * Keys arrive on the Swing event thread while the world is stepped on the
+ * animation thread, so key presses and releases are put on an InputQueue
+ * and handed to the world at the start of the next tick. The world is only
+ * ever changed by the animation thread.
+ *
+ * Painting never looks at the world either. At the end of every tick the
+ * animation thread copies what is needed to draw it into a WorldSnapshot
+ * and publishes it through a SnapshotBuffer, and painting draws the newest
+ * snapshot, whichever thread it happens on. With pipelined rendering, the
+ * frames on the render thread's queue are WorldSnapshots too.
+ *
+ * Only the parts of the window where something moved are repainted: the
+ * game remembers where each object was drawn and repaints where it was and
+ * where it is now. Painting then skips anything outside the area being
+ * repainted. The score and lives are drawn into a small picture that is
+ * only redrawn when one of them changes.
+ *
+ * A world can also be much larger than the window. With a Camera set, the
+ * window shows the part of the world around the ship, scrolling as it
+ * moves, and only what is on screen is drawn.
+ *
+ * With interpolation on, objects are drawn part way between where they
+ * were at the start of the last tick and where they are now, according to
+ * how far through the next tick it is. Frames can then be drawn more often
+ * than ticks run and still move smoothly. A frame on the render thread's
+ * queue keeps when its tick started, so it is never drawn further back
+ * than the tick it shows, however many ticks have run since.
+ *
+ * With setMetrics, the time taken by each phase of a frame is recorded,
+ * and setMetricsOverlay shows those times in the top right corner.
  */
 
 public class AsteroidsGame extends AbstractAnimation implements KeyListener {
-    // Create game window
-    private static JFrame frame = new JFrame();
-    
     // Set window height and width
     private static final int WINDOW_WIDTH = 900;
     private static final int WINDOW_HEIGHT = 900;
-    
-    // variable that holds ship
-    private Ship ship = new Ship(this);
-    
-    // initial number of asteroids
-    private static int asteroidAmount = 5;
-    
-    // variable containing asteroids
-    private List<Asteroid> asteroids = new ArrayList<>();
-    
-    
-    //true when game is playing
-    private boolean moving = true;
-    
-    //when shot is fired
-    private Shot shot;
-    
-    //true when ship is shooting
-    private boolean shooting = false;
-    
-    //score to be displayed
-    private int score=0;
-    
-    // level of difficulty
-    private int gameLevel = 0;
-
-    
-    //lives to be displayed
-    private int lives = 3;
-    
-    // true when the respawn point is clear of asteroids
-    private boolean canRespawn = true;
-    
-    // true when ship is destroyed (in respawn mode)
-    private boolean isDestroyed = false;
-    
-    // stores a respawn point
-    private Rectangle respawnPoint = new Rectangle(425, 425, 50, 50);
+
+    // Default time between ticks, in milliseconds
+    private static final int DEFAULT_MILLIS_PER_TICK = 30;
+
+    // Level of detail for large worlds: asteroids further than a shot can
+    // fly are moved every 8 ticks
+    private static final int LARGE_WORLD_FAR_INTERVAL = 8;
+    private static final double LARGE_WORLD_NEAR_DISTANCE =
+            ShotBuffer.DEFAULT_LIFETIME * 80 + WINDOW_WIDTH;
+
+    // the game being shown
+    private AsteroidsWorld world;
+
+    // key presses and releases waiting for the next tick
+    private final InputQueue input = new InputQueue();
+
+    // true while the replay dialog is up, only used by the animation thread
+    private boolean dialogShown;
+
+    // what each tick looks like, handed from the animation thread to
+    // whichever thread paints
+    private final SnapshotBuffer snapshots = new SnapshotBuffer();
+
+    // pictures of the ship and asteroids, or null to draw their shapes
+    private SpriteCache sprites = new SpriteCache();
+
+    // Size of the picture the score and lives are drawn in
+    private static final int HUD_WIDTH = 200;
+    private static final int HUD_HEIGHT = 50;
+
+    // Size of the box of frame phase times, and the height of one line
+    private static final int OVERLAY_WIDTH = 280;
+    private static final int OVERLAY_LINE_HEIGHT = 14;
+    private static final int OVERLAY_HEIGHT =
+            (FrameMetrics.Phase.values().length + 1) * OVERLAY_LINE_HEIGHT + 6;
+
+    // Gap between the box of frame phase times and the edges of the window
+    private static final int OVERLAY_MARGIN = 10;
+
+    // Look of the frame phase times
+    private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 160);
+    private static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+
+    // Default time between CSV dumps of frame phase times, in milliseconds
+    private static final long DEFAULT_METRICS_PERIOD_MILLIS = 10_000;
+
+    // Number of nanoseconds in a millisecond, for showing times
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    // ids for tracking where things were drawn: the ship, then the shots,
+    // then the asteroids by slot
+    private static final int SHIP_ID = 0;
+    private static final int FIRST_SHOT_ID = 1;
+
+    // the parts of the window that need repainting
+    private final DirtyRegions dirty = new DirtyRegions();
+
+    // the score and lives, drawn when they change
+    private BufferedImage hud;
+
+    // what part of a large world is shown, or null to show a world the
+    // size of the window. Only changed by the animation thread, or before
+    // it starts.
+    private volatile Camera camera;
+
+    // true to draw objects part way between ticks
+    private boolean interpolate;
+
+    // true to show frame phase times on screen
+    private boolean metricsOverlay;
+
+    // where the frame phase times are drawn, reused every frame
+    private final Rectangle overlayBounds = new Rectangle();
+
+    // the score and lives shown in hud, or -1 before it is first drawn.
+    // Only used by whichever thread paints.
+    private int hudScore = -1;
+    private int hudLives = -1;
+
+    // the score and lives when the hud was last asked to be repainted, or
+    // -1 before it first was. Only used by the animation thread, where the
+    // world always matches the latest snapshot.
+    private int repaintedScore = -1;
+    private int repaintedLives = -1;
 
 
     /**
      * Constructs animation for Asteroids.
      */
     public AsteroidsGame() {
-        setFocusable(true);
-        addKeyListener(this);
-        makeAsteroids();
+        this(new AsteroidsWorld(WINDOW_WIDTH, WINDOW_HEIGHT));
     }
-    
+
     /**
-     * Fills the list with asteroids
+     * Constructs animation for Asteroids showing a given world.
+     * @param world the game to show
      */
-    private void makeAsteroids() {
-        for (int i = 0; i < asteroidAmount; i++) {
-            asteroids.add(new Asteroid(this));
-        }
+    public AsteroidsGame(AsteroidsWorld world) {
+        this(world, DEFAULT_MILLIS_PER_TICK);
+    }
+
+    /**
+     * Constructs animation for Asteroids showing a given world, stepping it
+     * at a given rate. Everything in the game moves a set distance per
+     * tick, so a longer tick also makes the game play more slowly.
+     * @param world the game to show
+     * @param millisPerTick the time between ticks, in milliseconds
+     */
+    public AsteroidsGame(AsteroidsWorld world, int millisPerTick) {
+        super(millisPerTick);
+        this.world = world;
+        setFocusable(true);
+        addKeyListener(this);
+        snapshots.publish(world, camera);
     }
-    
+
     /**
      * Handles each new frame of game animation.
      */
     protected void nextFrame() {
-        //holds any newly generated asteroids
-        List<Asteroid> newAsteroids = new ArrayList<>();
-        
-        // checks if ship can be respawned
-        checkRespawn();
-        
-        // Call nextFrame on ship and asteroid if moving is true
-        if (moving) {
-            // if ship is not destroyed, get next frame
-            if (!isDestroyed) {
-                ship.nextFrame();
-            }
-           
-            for (Asteroid asteroid : asteroids) {
-                asteroid.nextFrame();
-            }
-            // if the ship is shooting, get next frame of shot object
-            if (shooting) {
-                shot.nextFrame();
+        Camera camera = this.camera;
+
+        // keep the playfield, or the camera's view of it, the size of the
+        // window once it is shown
+        if (getWidth() > 0 && getHeight() > 0) {
+            if (camera == null) {
+                world.setSize(getWidth(), getHeight());
+            } else {
+                camera.setViewSize(getWidth(), getHeight());
             }
-            
-            // repaint animated objects
-            repaint();
-            
-            // loop through asteroids to check collision with Ship or Shot
-            for (Asteroid asteroid : asteroids) {
-                
-                // if ship is not destroyed, check for a new collision with asteroid
-                if (!isDestroyed) {
-                    
-                    // check for collision
-                    if (checkCollision(ship, asteroid)) {
-                        // if ship is hit, a life is lost and Ship disappears from screen
-                        lives -= 1;
-                        isDestroyed = true;
-                        ship.destroy();
-                        
-                        // if there are remaining lives,
-                        // set canRespawn to false until
-                        // the respawn point has no Asteroids
-                        if (lives != 0) {
-                            canRespawn = false;
-                        // if there no remaining lives, animation stops
-                        } else {
-                            moving = false;
-                        }
-                    }
-                }
-                
-                // Check for a shot hitting an asteroid
-                if (shooting && checkCollision(shot, asteroid)) {
-                    // Add any new asteroids that may generate from big asteroids
-                    newAsteroids.addAll(asteroid.destroy());
-                    
-                    // Ship is no longer shooting
-                    shooting = false;
-                    
-                    // Increase score based on asteroid value
-                    score+=asteroid.score();
-                    
-                    // Check if all asteroids have been destroyed and level should be increased
-                    checkLevelChange();
+        }
 
-                }
+        // pass on the keys pressed and released since the last tick
+        input.drainTo(world);
+
+        // if game is over, pause and bring up replay dialog box on the
+        // event thread
+        if (world.isGameOver()) {
+            if (!dialogShown) {
+                dialogShown = true;
+                pause();
+                SwingUtilities.invokeLater(this::replayDialog);
             }
-        // if game is over bring up replay dialog box    
         } else {
-            replayDialog();
+            dialogShown = false;
+            world.step();
+        }
+        if (camera != null) {
+            camera.follow(world.getShip());
         }
-        
-        //adds the newly generated asteroids to main asteroid list, then clears newAsteroids list 
-        asteroids.addAll(newAsteroids);
-        newAsteroids.clear();
+        snapshots.publish(world, camera);
     }
-    
+
     /**
-     * Creates replay option at the end of game.
+     * Turns drawing objects part way between ticks on or off.
+     * @param interpolate true to draw objects between their previous and
+     *                    current positions
+     */
+    public void setInterpolation(boolean interpolate) {
+        this.interpolate = interpolate;
+    }
+
+    /**
+     * Starts or stops timing each phase of a frame, including the parts of
+     * each tick of the world.
+     * @param metrics where to record the times, or null to stop timing
+     */
+    @Override
+    public void setMetrics(FrameMetrics metrics) {
+        super.setMetrics(metrics);
+        world.setMetrics(metrics);
+    }
+
+    /**
+     * Shows or hides the frame phase times in the top right corner. They
+     * are only shown while metrics are being recorded.
+     * @param show true to show the times
+     */
+    public void setMetricsOverlay(boolean show) {
+        this.metricsOverlay = show;
+    }
+
+    /**
+     * Shows a world larger than the window through a camera that follows
+     * the ship. The world keeps its own size instead of following the
+     * window's. While the animation is running the camera is changed
+     * between two ticks, like a restart.
+     * @param camera the camera to show the world through, or null to make
+     *               the world the size of the window
+     */
+    public void setCamera(Camera camera) {
+        runBetweenTicks(() -> {
+            this.camera = camera;
+            if (camera != null) {
+                camera.follow(world.getShip());
+            }
+            snapshots.publish(world, camera);
+        });
+    }
+
+    /**
+     * Creates replay option at the end of game. This runs on the event
+     * thread while the animation is paused.
      */
     private void replayDialog() {
         // Options for dialog box
         String [] options = {"Replay", "Quit"};
-        
+
         // Creates replay option dialog
-        int response = JOptionPane.showOptionDialog(frame, "You've died! Play again?", "Game over!",
+        int response = JOptionPane.showOptionDialog(SwingUtilities.getWindowAncestor(this),
+                "You've died! Play again?", "Game over!",
                 JOptionPane.ERROR_MESSAGE, 0, null, options, null);
-        
+
         // If user chooses replay, animation reinitializes
         if (response == 0) {
             restart();
-            moving = true;
-            
+
         // If user chooses quit, program terminates
         } else if (response == 1) {
             System.exit(0);
+
+        // If the dialog was closed, ask again on the next tick
+        } else {
+            runBetweenTicks(() -> dialogShown = false);
         }
+        resume();
     }
-    
+
     /**
      * Method called when player wants to restart the game.
-     * Resets instance variables to their initial values.
+     * Resets the world to the start of a new game. While the animation is
+     * running this happens between two ticks, so a tick never sees a half
+     * reset world. The new game is published straight away, so what is
+     * painted always matches the world between ticks.
      */
     public void restart() {
-        ship = new Ship(this);
-        asteroidAmount = 5;
-        asteroids = new ArrayList<>();
-        makeAsteroids();
-        score = 0;
-        lives = 3;
-        gameLevel = 0;
-        canRespawn = true;
-        isDestroyed = false;
+        runBetweenTicks(() -> {
+            world.restart();
+            snapshots.publish(world, camera);
+        });
+    }
+
+    /**
+     * @return the world this game is showing
+     */
+    public AsteroidsWorld getWorld() {
+        return world;
     }
-    
+
     /**
-     * Checks the respawn point in the middle of the screen
-     * for collisions with an asteroid to see if a ship can
-     * respawn without colliding immediate with another asteroid.
+     * Chooses how the ship and asteroids are drawn.
+     * @param sprites the cache of pictures to copy, or null to fill and
+     *                stroke their shapes every frame
      */
-    private void checkRespawn() {
-        // checks if ship can respawn in the middle without collision
-        for (Asteroid asteroid : asteroids) {
-            // if the respawn point and the asteroid do not intersect, then canRespawn is true
-            if (!asteroid.getShape().getBounds2D().intersects(respawnPoint.getBounds2D())) {
-                canRespawn = true;
-            } else {
-                canRespawn = false;
-                break;
-            }
-        }
-        // reinitializes the ship if there is no danger of collision
-        if (canRespawn && isDestroyed) {
-            ship = new Ship(this);
-            isDestroyed = false;
-        }
+    public void setSpriteCache(SpriteCache sprites) {
+        this.sprites = sprites;
     }
-    
+
     /**
-     * Checks if level of difficulty should be changed.
-     * If yes, this method increases the level of 
-     * difficulty.
+     * @return the cache of pictures the ship and asteroids are drawn from,
+     *         or null if their shapes are drawn
      */
-    private void checkLevelChange() {
-        // loop through asteroids and tally how many are destroyed
-        
-        int destroyedAsters = 0;
-        for (Asteroid aster : asteroids) {
-            if (aster.isDestroyed()) {
-                destroyedAsters++;
+    public SpriteCache getSpriteCache() {
+        return sprites;
+    }
+
+    /**
+     * Repaints only where things have moved since the last frame. This runs
+     * on the animation thread, between ticks, so it can look at the world
+     * itself.
+     */
+    @Override
+    protected void repaintFrame() {
+        // the whole view scrolls as the camera moves, and objects drawn
+        // between ticks move on every frame
+        if (camera != null || interpolate) {
+            repaint();
+            return;
+        }
+
+        dirty.update(SHIP_ID, world.getShip().getBounds2D());
+
+        ShotBuffer shots = world.getShots();
+        int firstAsteroidId = FIRST_SHOT_ID + shots.getCapacity();
+        for (int i = 0; i < shots.getCapacity(); i++) {
+            if (i < shots.size() && !shots.get(i).isEnded()) {
+                dirty.update(FIRST_SHOT_ID + i, shots.get(i).getBounds2D());
+            } else {
+                dirty.update(FIRST_SHOT_ID + i, 0, 0, 0, 0);
             }
         }
-        
-        // if all asteroids are destroyed, increase difficulty
-        if (destroyedAsters == asteroids.size()) {
-            gameLevel+= 0.5;
-            
-            // reinitialize asteroidsList with more asteroids
-            asteroids = new ArrayList<>();
-            asteroidAmount += 1;
-            makeAsteroids();
-            
-            // change speed of asteroids to make game harder
-            for (Asteroid asteroid : asteroids) {
-                asteroid.changeSpeed(gameLevel);
+
+        AsteroidField asteroids = world.getAsteroids();
+        for (int slot = 0; slot < asteroids.getSlotLimit(); slot++) {
+            if (asteroids.isUsed(slot)) {
+                dirty.update(firstAsteroidId + slot, asteroids.get(slot).getBounds2D());
+            } else {
+                dirty.update(firstAsteroidId + slot, 0, 0, 0, 0);
             }
         }
+        dirty.removeFrom(firstAsteroidId + asteroids.getSlotLimit());
+
+        if (world.getScore() != repaintedScore || world.getLives() != repaintedLives) {
+            dirty.add(0, 0, HUD_WIDTH, HUD_HEIGHT);
+            repaintedScore = world.getScore();
+            repaintedLives = world.getLives();
+        }
+        if (isOverlayShown()) {
+            Rectangle box = getOverlayBounds();
+            dirty.add(box.x, box.y, box.width, box.height);
+        }
+
+        for (int i = 0; i < dirty.size(); i++) {
+            Rectangle area = dirty.get(i);
+            repaint(area.x, area.y, area.width, area.height);
+        }
+        dirty.clear();
     }
-    
+
     /**
-     * Check whether two object collide.  This tests whether their shapes intersect.
-     * @param shape1 the first shape to test
-     * @param shape2 the second shape to test
-     * @return true if the shapes intersect
+     * paints the score and lives left, redrawing their picture first if
+     * either has changed
+     * @param g the graphic context to draw in
+     * @param snapshot the tick being drawn
      */
-    private boolean checkCollision(AnimatedObject shape1,
-            AnimatedObject shape2) {
-        return shape2.getShape().getBounds2D().intersects(shape1.getShape().getBounds2D());
+    private void paintHud(Graphics g, WorldSnapshot snapshot) {
+        int score = snapshot.getScore();
+        int lives = snapshot.getLives();
+        if (hud == null || score != hudScore || lives != hudLives) {
+            if (hud == null) {
+                hud = new BufferedImage(HUD_WIDTH, HUD_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            }
+            Graphics2D hudGraphics = hud.createGraphics();
+            try {
+                hudGraphics.setFont(g.getFont());
+                // clear the old text
+                hudGraphics.setComposite(AlphaComposite.Clear);
+                hudGraphics.fillRect(0, 0, HUD_WIDTH, HUD_HEIGHT);
+                hudGraphics.setComposite(AlphaComposite.SrcOver);
+                paintScore(hudGraphics, score);
+                displayLives(hudGraphics, lives);
+            } finally {
+                hudGraphics.dispose();
+            }
+            hudScore = score;
+            hudLives = lives;
+        }
+        g.drawImage(hud, 0, 0, null);
     }
-    
+
     /**
      * paints the score
      * @param g the graphic context to draw in
+     * @param score the score to show
      */
-    private void paintScore(Graphics g) {
+    private void paintScore(Graphics g, int score) {
         g.setColor(Color.WHITE);
         g.drawString("Score: " + score, 10, 20);
     }
-    
+
     /**
      * this displays the lives left for the ship
      * @param g the graphic that the score will be painted in
+     * @param lives the number of lives to show
      */
-    private void displayLives(Graphics g) {
+    private void displayLives(Graphics g, int lives) {
         g.setColor(Color.WHITE);
         g.drawString("Lives Left: " + lives, 10, 40);
     }
-    
+
     /**
 
      * Paint the animation by painting the objects in the animation.
      * @param g the graphic context to draw on
      */
     public void paintComponent(Graphics g) {
+        paintWithEvent(g, snapshots.getLatest(), interpolate ? getInterpolationAlpha() : 1);
+    }
+
+    /**
+     * @return an empty snapshot for the render thread's frame queue
+     */
+    @Override
+    protected Object createFrame() {
+        return new WorldSnapshot();
+    }
+
+    /**
+     * Copies the world into a snapshot for the render thread, along with
+     * when the next tick started being owed.
+     * @param frame the snapshot to fill
+     */
+    @Override
+    protected void captureFrame(Object frame) {
+        WorldSnapshot snapshot = (WorldSnapshot) frame;
+        snapshot.capture(world, camera);
+        snapshot.setTickStartNanos(getTickStartNanos());
+    }
+
+    /**
+     * Paints a snapshot from the frame queue. By the time it is painted the
+     * animation thread may have run more ticks, so how far through the tick
+     * it is drawn is worked out from when the snapshot was captured.
+     * @param g the graphic context to draw on
+     * @param frame the WorldSnapshot to draw
+     */
+    @Override
+    protected void paintFrame(Graphics g, Object frame) {
+        WorldSnapshot snapshot = (WorldSnapshot) frame;
+        paintWithEvent(g, snapshot,
+                interpolate ? getInterpolationAlpha(snapshot.getTickStartNanos()) : 1);
+    }
+
+    /**
+     * Paints a snapshot of the world, recording a paint event if they are
+     * being recorded.
+     * @param g the graphic context to draw on
+     * @param snapshot the tick to draw
+     * @param alpha how far through the tick, from 0 to 1
+     */
+    private void paintWithEvent(Graphics g, WorldSnapshot snapshot, double alpha) {
+        GameEvents.PaintEvent event = null;
+        if (GameEvents.PAINT.isEnabled()) {
+            event = new GameEvents.PaintEvent();
+            event.begin();
+        }
+        paintSnapshot(g, snapshot, alpha);
+        if (event != null) {
+            Rectangle clip = g.getClipBounds();
+            event.clipWidth = clip != null ? clip.width : getWidth();
+            event.clipHeight = clip != null ? clip.height : getHeight();
+            event.asteroids = snapshot.getAsteroidTotal();
+            event.commit();
+        }
+    }
+
+    /**
+     * Paints the background and everything in a snapshot of the world.
+     * With a camera, the snapshot only holds what is on screen, already
+     * placed on it.
+     * @param g the graphic context to draw on
+     * @param snapshot the tick to draw
+     * @param alpha how far through the tick, from 0 to 1
+     */
+    private void paintSnapshot(Graphics g, WorldSnapshot snapshot, double alpha) {
         super.paintComponent(g);
-        paintScore(g);
-        displayLives(g);
-        ship.paint((Graphics2D) g);
-        for (Asteroid asteroid : asteroids) {
-            asteroid.paint((Graphics2D) g);
+        Graphics2D g2 = (Graphics2D) g;
+        // only what overlaps this needs drawing, or everything if null. The
+        // camera view is always repainted whole.
+        Rectangle clip = camera != null ? null : g.getClipBounds();
+        if (clip == null || clip.intersects(0, 0, HUD_WIDTH, HUD_HEIGHT)) {
+            paintHud(g, snapshot);
+        }
+        if (snapshot.isShipShown() && isInClip(snapshot.getShipBounds(), clip)) {
+            snapshot.paintShip(g2, alpha, sprites);
+        }
+        for (int i = 0; i < snapshot.getAsteroidCount(); i++) {
+            if (isInClip(snapshot.getAsteroidBounds(i), clip)) {
+                snapshot.paintAsteroid(g2, i, alpha, sprites);
+            }
+        }
+        for (int i = 0; i < snapshot.getShotCount(); i++) {
+            if (isInClip(snapshot.getShotBounds(i), clip)) {
+                snapshot.paintShot(g2, i, alpha);
+            }
+        }
+        if (clip == null || clip.intersects(getOverlayBounds())) {
+            paintOverlay(g);
+        }
+    }
+
+    /**
+     * @return true when the frame phase times should be drawn
+     */
+    private boolean isOverlayShown() {
+        return metricsOverlay && getMetrics() != null;
+    }
+
+    /**
+     * @return where the frame phase times are drawn
+     */
+    private Rectangle getOverlayBounds() {
+        overlayBounds.setBounds(getWidth() - OVERLAY_WIDTH - OVERLAY_MARGIN, OVERLAY_MARGIN,
+                OVERLAY_WIDTH, OVERLAY_HEIGHT);
+        return overlayBounds;
+    }
+
+    /**
+     * Draws the mean, 99th percentile and longest time of each phase of a
+     * frame, in milliseconds, if they are being shown.
+     * @param g the graphic context to draw on
+     */
+    private void paintOverlay(Graphics g) {
+        if (!isOverlayShown()) {
+            return;
         }
-        if (shooting) {
-            shot.paint((Graphics2D) g);
+        FrameMetrics metrics = getMetrics();
+        Rectangle box = getOverlayBounds();
+        g.setColor(OVERLAY_BACKGROUND);
+        g.fillRect(box.x, box.y, box.width, box.height);
+        g.setColor(Color.WHITE);
+        g.setFont(OVERLAY_FONT);
+        int y = box.y + OVERLAY_LINE_HEIGHT;
+        g.drawString(String.format("%-10s %8s %8s %8s", "phase", "mean", "p99", "max"),
+                box.x + 4, y);
+        for (FrameMetrics.Phase phase : FrameMetrics.Phase.values()) {
+            FrameTimeHistogram times = metrics.get(phase);
+            y += OVERLAY_LINE_HEIGHT;
+            g.drawString(String.format("%-10s %8.3f %8.3f %8.3f", phase.name().toLowerCase(),
+                    times.getMean() / NANOS_PER_MILLI,
+                    times.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                    times.getMax() / NANOS_PER_MILLI), box.x + 4, y);
         }
     }
-    
+
+    /**
+     * Checks whether an object could draw anything inside the clip, allowing
+     * a pixel either side for lines drawn along its edge.
+     * @param bounds the bounding box of the object
+     * @param clip the area being painted, or null for everything
+     * @return true if the object should be painted
+     */
+    private static boolean isInClip(Rectangle2D bounds, Rectangle clip) {
+        if (clip == null) {
+            return true;
+        }
+        return !bounds.isEmpty() && clip.intersects(bounds.getX() - 1, bounds.getY() - 1,
+                bounds.getWidth() + 2, bounds.getHeight() + 2);
+    }
+
     @Override
     /**
      * This is called on the downward action when the user presses a key.
-     * It notifies the animation about presses of up arrow, right 
-     * arrow, left arrow, and the space bar.  All other keys are ignored.
+     * It queues the press for the world, which acts on up arrow, right
+     * arrow, left arrow, the space bar and shift and ignores all other keys.
      * @param e information about the key pressed
      */
     public void keyPressed(KeyEvent e) {
-        int key = e.getKeyCode();
-        switch (key) {
-        case KeyEvent.VK_UP:
-            // call Ship's method to thrust ship forward
-            ship.up();
-            break;
-        case KeyEvent.VK_RIGHT:
-            // call Ship's rotate clockwise method
-            ship.right();
-            break;
-        case KeyEvent.VK_LEFT:
-            // call Ship's rotate counterclockwise method
-            ship.left();
-            break;
-        case KeyEvent.VK_SPACE:
-            // call Ship's method to shoot
-            shooting = true;
-            shot = ship.space();
-            break;
-        case KeyEvent.VK_SHIFT:
-            // call Ship's hyperspace method
-            ship.shift();
-            break;
-        default:
-            // ignore all other keys
-        }
+        input.offer(e.getKeyCode(), true);
     }
-    
+
     @Override
     /**
      * This is called when the user releases the key after pressing it.
-     * It does nothing.
+     * It queues the release for the world, so a held key stops.
      * @param e information about the key released
      */
     public void keyReleased(KeyEvent e) {
-        // Nothing to do
+        input.offer(e.getKeyCode(), false);
     }
 
     @Override
@@ -356,31 +629,112 @@ public class AsteroidsGame extends AbstractAnimation implements KeyListener {
     public void keyTyped(KeyEvent e) {
         // Nothing to do
     }
-    
+
     /**
-     * 
-     * @param args
+     * Starts a game in a window.
+     * @param args optional seed for the game's random numbers, followed by
+     *             an optional file to save the player's key presses in when
+     *             the window is closed
      */
     public static void main(String[] args) {
+        // Create game window
+        JFrame frame = new JFrame();
+
         // Set game window's title and size
         frame.setTitle("Asteroids");
         frame.setSize(WINDOW_WIDTH, WINDOW_HEIGHT);
-        
+
         // Entire program exits when user closes window
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        
-        // Create animation
-        AsteroidsGame game = new AsteroidsGame();
-        
+
+        // Create animation, from a chosen seed if one was given
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : new Random().nextLong();
+
+        // Tick and frame rates, set with -Danimation.tickMillis=<ms> and
+        // -Danimation.fps=<frames per second>. Frames are drawn between
+        // ticks when they are drawn more often than ticks run.
+        int tickMillis = Integer.getInteger("animation.tickMillis", DEFAULT_MILLIS_PER_TICK);
+        int fps = Integer.getInteger("animation.fps", 1000 / tickMillis);
+
+        // Play in a world much larger than the window if asked to with
+        // -Danimation.worldSize=<pixels>, scattering
+        // -Danimation.asteroids=<count> asteroids over it
+        int worldSize = Integer.getInteger("animation.worldSize", 0);
+        AsteroidsGame game;
+        if (worldSize > 0) {
+            AsteroidsWorld world = new AsteroidsWorld(worldSize, worldSize, seed);
+            world.scatterAsteroids(Integer.getInteger("animation.asteroids", 1000));
+            world.setLevelOfDetail(LARGE_WORLD_FAR_INTERVAL, LARGE_WORLD_NEAR_DISTANCE);
+            game = new AsteroidsGame(world, tickMillis);
+            game.setCamera(new Camera(world, WINDOW_WIDTH, WINDOW_HEIGHT));
+        } else {
+            game = new AsteroidsGame(new AsteroidsWorld(WINDOW_WIDTH, WINDOW_HEIGHT, seed), tickMillis);
+        }
+        game.setRenderRate(fps);
+        game.setInterpolation(fps * tickMillis > 1000);
+
+        // Draw frames on the animation thread if asked to with
+        // -Danimation.activeRendering=true
+        game.setActiveRendering(Boolean.getBoolean("animation.activeRendering"));
+
+        // Draw those frames on a render thread of their own while the next
+        // tick runs if asked to with -Danimation.pipeline=DROP or BLOCK,
+        // saying what to do when -Danimation.frameQueue=<frames> are
+        // already waiting to be drawn
+        String pipeline = System.getProperty("animation.pipeline");
+        if (pipeline != null) {
+            game.setPipelinedRendering(
+                    Integer.getInteger("animation.frameQueue", FrameQueue.DEFAULT_CAPACITY),
+                    FrameQueue.Policy.valueOf(pipeline));
+        }
+
+        // Time each phase of a frame if asked to with -Danimation.metrics=true,
+        // showing the times over JMX, on screen with
+        // -Danimation.metricsOverlay=true, and in a CSV file every
+        // -Danimation.metricsPeriod=<ms> with -Danimation.metricsCsv=<file>
+        if (Boolean.getBoolean("animation.metrics")) {
+            FrameMetrics metrics = new FrameMetrics();
+            game.setMetrics(metrics);
+            game.setMetricsOverlay(Boolean.getBoolean("animation.metricsOverlay"));
+            try {
+                metrics.register("game");
+            } catch (JMException e) {
+                System.err.println("Could not show frame metrics over JMX: " + e.getMessage());
+            }
+            String csv = System.getProperty("animation.metricsCsv");
+            if (csv != null) {
+                metrics.startCsvDump(Paths.get(csv),
+                        Long.getLong("animation.metricsPeriod", DEFAULT_METRICS_PERIOD_MILLIS));
+            }
+        }
+
+        // Record the game if asked to, saving it when the window closes
+        if (args.length > 1) {
+            InputLog log = game.getWorld().startRecording();
+            Path file = Paths.get(args[1]);
+            frame.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    // stop the game so the log is not added to while saving
+                    game.stop();
+                    try (OutputStream out = Files.newOutputStream(file)) {
+                        log.writeTo(out);
+                    } catch (IOException ex) {
+                        System.err.println("Could not save input log: " + ex.getMessage());
+                    }
+                }
+            });
+        }
+
         // Add animation to window
         Container contentPane = frame.getContentPane();
         contentPane.setBackground(Color.BLACK);
         contentPane.add(game, BorderLayout.CENTER);
-        
+
         // Display window
         frame.setVisible(true);
-        
+
         // Start animation
         game.start();
-    }    
-}
\ No newline at end of file
+    }
+}
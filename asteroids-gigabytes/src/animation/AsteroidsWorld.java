@@ -0,0 +1,819 @@
+package animation;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * The rules and state of an Asteroids game: the ship, the asteroids, the
+ * shots, the score and the lives left. Nothing here depends on Swing, so a
+ * world can be stepped as fast as the CPU allows without a window, for
+ * example in tests or simulations. AsteroidsGame draws a world on screen
+ * and feeds it key presses.
+ *
+ * All randomness comes from one Random, so two worlds made with the same
+ * seed and given the same key presses on the same ticks play out exactly
+ * alike. An InputLog can record those key presses for replaying later.
+ *
+ * The world keeps track of which keys are held down. A command whose key
+ * is held is carried out as soon as the key is pressed and then once at
+ * the start of every tick until it is released, so it does not depend on
+ * how fast the keyboard repeats. Presses of a key that is already held
+ * are ignored.
+ */
+public class AsteroidsWorld implements Playfield {
+    // Default width and height of the playfield
+    public static final int DEFAULT_WIDTH = 900;
+    public static final int DEFAULT_HEIGHT = 900;
+
+    // number of asteroids at the start of a game
+    private static final int STARTING_ASTEROIDS = 5;
+
+    // size of a collision grid cell, about the size of the largest asteroid
+    private static final int GRID_CELL_SIZE = 100;
+
+    // most cells across or down the collision grid, so very large
+    // playfields get larger cells rather than a huge grid
+    private static final int MAX_GRID_CELLS = 1024;
+
+    // every command, looked up once since values() makes a new array
+    private static final Command[] COMMANDS = Command.values();
+
+    // width and height of the playfield
+    private int width;
+    private int height;
+
+    // source of every random number in the game
+    private final Random random;
+
+    // the seed random was made from, or null if it was passed in
+    private final Long seed;
+
+    // number of ticks stepped so far
+    private long tick = 0;
+
+    // where key presses are recorded, or null when not recording
+    private InputLog inputLog;
+
+    // for each command, by ordinal, true while its key is held down
+    private final boolean[] held = new boolean[COMMANDS.length];
+
+    // for each command, the tick its key last went down on
+    private final long[] pressedOnTick = new long[COMMANDS.length];
+
+    // variable that holds ship
+    private Ship ship;
+
+    // number of asteroids made at the start of a level
+    private int asteroidAmount = STARTING_ASTEROIDS;
+
+    // number of asteroids scattered over the whole playfield at the start
+    // of a game, on top of the usual ones
+    private int scatteredAmount = 0;
+
+    // variable containing asteroids
+    private AsteroidField asteroids;
+
+    //true when the game is over
+    private boolean gameOver = false;
+
+    // shots in flight
+    private ShotBuffer shots;
+
+    //score to be displayed
+    private int score=0;
+
+    // level of difficulty
+    private int gameLevel = 0;
+
+    // Lives a new game starts with unless setStartingLives says otherwise
+    public static final int DEFAULT_LIVES = 3;
+
+    // lives each new game starts with
+    private int startingLives = DEFAULT_LIVES;
+
+    //lives to be displayed
+    private int lives = DEFAULT_LIVES;
+
+    // true when the respawn point is clear of asteroids
+    private boolean canRespawn = true;
+
+    // true when ship is destroyed (in respawn mode)
+    private boolean isDestroyed = false;
+
+    // stores a respawn point, the same kind of rectangle as every other the
+    // grid is asked about so its compiled query is never thrown away
+    private final Rectangle2D.Double respawnPoint = new Rectangle2D.Double(425, 425, 50, 50);
+
+    // grid of asteroid positions used to find possible collisions
+    private SpatialHash<Asteroid> grid;
+
+    // asteroids found near the object being checked for collisions, looped
+    // over by index so that no iterator is made
+    private final ArrayList<Asteroid> nearby = new ArrayList<>();
+
+    // where the time taken by each phase of a tick is recorded, or null
+    private FrameMetrics metrics;
+
+    // time spent splitting asteroids and starting levels during this
+    // tick's collision checks, in nanoseconds
+    private long spawnNanos;
+
+    /**
+     * Creates a world with the default playfield size.
+     */
+    public AsteroidsWorld() {
+        this(DEFAULT_WIDTH, DEFAULT_HEIGHT);
+    }
+
+    /**
+     * Creates a world with a given playfield size.
+     *
+     * @param width  the width of the playfield, in pixels
+     * @param height the height of the playfield, in pixels
+     */
+    public AsteroidsWorld(int width, int height) {
+        this(width, height, new Random().nextLong());
+    }
+
+    /**
+     * Creates a world whose random numbers all come from a given seed.
+     *
+     * @param width  the width of the playfield, in pixels
+     * @param height the height of the playfield, in pixels
+     * @param seed   the seed for the world's random numbers
+     */
+    public AsteroidsWorld(int width, int height, long seed) {
+        this(width, height, new Random(seed), seed);
+    }
+
+    /**
+     * Creates a world whose random numbers all come from a given source.
+     *
+     * @param width  the width of the playfield, in pixels
+     * @param height the height of the playfield, in pixels
+     * @param random the source of random numbers
+     */
+    public AsteroidsWorld(int width, int height, Random random) {
+        this(width, height, random, null);
+    }
+
+    private AsteroidsWorld(int width, int height, Random random, Long seed) {
+        this.width = width;
+        this.height = height;
+        this.random = random;
+        this.seed = seed;
+        ship = new Ship(this, random);
+        shots = new ShotBuffer(this);
+        asteroids = new AsteroidField(this, random);
+        int cellSize = Math.max(GRID_CELL_SIZE,
+                (Math.max(width, height) + MAX_GRID_CELLS - 1) / MAX_GRID_CELLS);
+        grid = new SpatialHash<>(width, height, cellSize);
+        makeAsteroids();
+    }
+
+    /**
+     * Fills the field with asteroids
+     */
+    private void makeAsteroids() {
+        spawnAsteroids(asteroidAmount);
+    }
+
+    /**
+     * Adds random asteroids to the field, on top of the ones already there.
+     * Useful for stress tests and benchmarks.
+     *
+     * @param count the number of asteroids to add
+     */
+    public void spawnAsteroids(int count) {
+        for (int i = 0; i < count; i++) {
+            asteroids.spawn();
+        }
+    }
+
+    /**
+     * Adds random asteroids anywhere on the playfield, for filling a
+     * playfield much larger than the window. They are scattered again
+     * whenever the game restarts.
+     *
+     * @param count the number of asteroids to add
+     */
+    public void scatterAsteroids(int count) {
+        scatteredAmount += count;
+        for (int i = 0; i < count; i++) {
+            asteroids.spawnScattered();
+        }
+    }
+
+    /**
+     * Moves asteroids far from the ship only every few ticks, and leaves
+     * them out of collision checks, so a tick costs about the same however
+     * large the playfield is. Anything that could reach the ship or be hit
+     * by a shot before it is next moved counts as near and is moved every
+     * tick.
+     *
+     * @param farInterval  the ticks between moves of far asteroids, or 1 to
+     *                     move every asteroid every tick
+     * @param nearDistance how far from the ship, across or down, an
+     *                     asteroid still counts as near. This should cover
+     *                     the screen and the range of a shot.
+     */
+    public void setLevelOfDetail(int farInterval, double nearDistance) {
+        asteroids.setLevelOfDetail(farInterval, nearDistance);
+    }
+
+    /**
+     * Makes room for a number of asteroids up front in the field and the
+     * collision grid. Every level has more asteroids than the last, so
+     * without this the field grows, and allocates, whenever a game gets
+     * further than it has before. Useful before timing ticks.
+     *
+     * @param count the number of asteroids, live and blinking, to make
+     *              room for
+     */
+    public void reserveAsteroids(int count) {
+        asteroids.ensureCapacity(count);
+        grid.ensureCapacity(count);
+        nearby.ensureCapacity(count);
+    }
+
+    /**
+     * Moves the game forward by one tick.
+     */
+    public void step() {
+        applyHeldCommands();
+        tick++;
+        FrameMetrics metrics = this.metrics;
+        long start = metrics != null ? System.nanoTime() : 0;
+
+        // checks if ship can be respawned
+        checkRespawn();
+        start = lap(metrics, FrameMetrics.Phase.RESPAWN, start);
+
+        // nothing moves once the game is over
+        if (gameOver) {
+            return;
+        }
+
+        // remember where the ship started the tick, for drawing it part
+        // way through the tick
+        ship.savePreviousState();
+
+        // if ship is not destroyed, get next frame
+        if (!isDestroyed) {
+            ship.nextFrame();
+        }
+
+        // move every asteroid in one pass over the field, or just the ones
+        // near the ship and a stripe of the rest
+        if (asteroids.isLevelOfDetail()) {
+            asteroids.updateAround(ship.getX(), ship.getY());
+        } else {
+            asteroids.update(1);
+        }
+        // let go of asteroids that have finished blinking, so their slots
+        // are reused instead of being moved and checked for the rest of
+        // the level
+        asteroids.retireFinished();
+        // move the shots, ending any that left the screen or ran out of time
+        shots.update();
+        start = lap(metrics, FrameMetrics.Phase.UPDATE, start);
+
+        // put the asteroids in the grid so only nearby ones are checked
+        indexAsteroids();
+        start = lap(metrics, FrameMetrics.Phase.INDEX, start);
+        spawnNanos = 0;
+
+        // if ship is not destroyed, check for a new collision with an asteroid near it
+        if (!isDestroyed) {
+            nearby.clear();
+            grid.query(ship.getBounds2D(), nearby);
+            for (int i = 0; i < nearby.size(); i++) {
+                Asteroid asteroid = nearby.get(i);
+
+                // check for collision
+                if (checkCollision(ship, asteroid)) {
+                    // if ship is hit, a life is lost and Ship disappears from screen
+                    lives -= 1;
+                    isDestroyed = true;
+                    ship.destroy();
+                    if (GameEvents.SHIP_HIT.isEnabled()) {
+                        GameEvents.ShipHitEvent event = new GameEvents.ShipHitEvent();
+                        event.tick = tick;
+                        event.livesLeft = lives;
+                        event.commit();
+                    }
+
+                    // if there are remaining lives,
+                    // set canRespawn to false until
+                    // the respawn point has no Asteroids
+                    if (lives != 0) {
+                        canRespawn = false;
+                    // if there no remaining lives, the game is over
+                    } else {
+                        gameOver = true;
+                    }
+                    break;
+                }
+            }
+        }
+
+        // Check each shot, oldest first, for hitting an asteroid near it
+        checkShots(metrics);
+        if (metrics != null) {
+            metrics.record(FrameMetrics.Phase.COLLISION, System.nanoTime() - start - spawnNanos);
+        }
+    }
+
+    /**
+     * Records the time since the start of a phase of a tick.
+     *
+     * @param metrics where to record it, or null if not timing
+     * @param phase   the phase that just finished
+     * @param start   when the phase started, from System.nanoTime
+     * @return when the next phase starts
+     */
+    private static long lap(FrameMetrics metrics, FrameMetrics.Phase phase, long start) {
+        if (metrics == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        metrics.record(phase, now - start);
+        return now;
+    }
+
+    /**
+     * Checks every shot in flight against the asteroids near the path it
+     * took this tick. Shots move much further in a tick than a small
+     * asteroid is wide, so the whole path is checked, not just where the
+     * shot ended up. A shot that hits destroys the first asteroid on its
+     * path and ends.
+     * @param metrics where to record the time spent splitting asteroids and
+     *                starting levels, or null if not timing
+     */
+    private void checkShots(FrameMetrics metrics) {
+        for (int s = 0; s < shots.size(); s++) {
+            Shot shot = shots.get(s);
+            if (shot.isEnded()) {
+                continue;
+            }
+
+            // everything the shot passed, allowing for the asteroids
+            // having moved too
+            Rectangle2D end = shot.getBounds2D();
+            double margin = asteroids.getMaxMove();
+            double minX = Math.min(end.getX(), shot.getPreviousX()) - margin;
+            double minY = Math.min(end.getY(), shot.getPreviousY()) - margin;
+            double maxX = Math.max(end.getX(), shot.getPreviousX()) + end.getWidth() + margin;
+            double maxY = Math.max(end.getY(), shot.getPreviousY()) + end.getHeight() + margin;
+            nearby.clear();
+            grid.query(minX, minY, maxX - minX, maxY - minY, nearby);
+
+            // the asteroid the shot reached first, if any
+            Asteroid asteroid = null;
+            double firstTime = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < nearby.size(); i++) {
+                double time = timeOfImpact(shot, nearby.get(i));
+                if (time >= 0 && time < firstTime) {
+                    asteroid = nearby.get(i);
+                    firstTime = time;
+                }
+            }
+            if (asteroid != null) {
+                long spawnStart = metrics != null ? System.nanoTime() : 0;
+
+                // Destroy the asteroid, adding any new asteroids that
+                // may generate from big asteroids to the field
+                int pieces = asteroid.destroy(null);
+                if (GameEvents.ASTEROID_SPLIT.isEnabled()) {
+                    GameEvents.AsteroidSplitEvent event = new GameEvents.AsteroidSplitEvent();
+                    event.tick = tick;
+                    event.size = asteroids.getSize(asteroid.getSlot());
+                    event.spawnCount = pieces;
+                    event.commit();
+                }
+
+                // This shot is used up
+                shots.end(s);
+
+                // Increase score based on asteroid value
+                score+=asteroid.score();
+
+                // Check if all asteroids have been destroyed and level
+                // should be increased. A new level has new asteroids
+                // that are not in the grid yet, so stop checking.
+                boolean levelChanged = checkLevelChange();
+                if (metrics != null) {
+                    long elapsed = System.nanoTime() - spawnStart;
+                    metrics.record(FrameMetrics.Phase.SPAWN, elapsed);
+                    spawnNanos += elapsed;
+                }
+                if (levelChanged) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Carries out the commands whose keys are held down, apart from ones
+     * that were only pressed before this tick and have already happened.
+     */
+    private void applyHeldCommands() {
+        for (Command command : COMMANDS) {
+            int i = command.ordinal();
+            if (held[i] && command.isRepeating() && pressedOnTick[i] != tick) {
+                apply(command);
+            }
+        }
+    }
+
+    /**
+     * Handles a key press, recording it if an InputLog is attached. The
+     * key's command happens straight away, unless the key is already held
+     * down, as it is when the keyboard repeats a held key.
+     *
+     * @param keyCode the key code from the KeyEvent
+     */
+    public void keyPressed(int keyCode) {
+        if (inputLog != null) {
+            inputLog.recordKey(tick, keyCode);
+        }
+        Command command = Command.fromKeyCode(keyCode);
+        if (command != null && !held[command.ordinal()]) {
+            held[command.ordinal()] = true;
+            pressedOnTick[command.ordinal()] = tick;
+            apply(command);
+        }
+    }
+
+    /**
+     * Handles a key being let go, recording it if an InputLog is attached.
+     * Its command stops before the next tick.
+     *
+     * @param keyCode the key code from the KeyEvent
+     */
+    public void keyReleased(int keyCode) {
+        if (inputLog != null) {
+            inputLog.recordRelease(tick, keyCode);
+        }
+        Command command = Command.fromKeyCode(keyCode);
+        if (command != null) {
+            held[command.ordinal()] = false;
+        }
+    }
+
+    /**
+     * @param command a command
+     * @return true if the key for the command is held down
+     */
+    public boolean isHeld(Command command) {
+        return held[command.ordinal()];
+    }
+
+    /**
+     * Starts recording key presses, restarts and playfield size changes. This should
+     * be called before the first step, so the log can be replayed from the
+     * start of the game.
+     *
+     * @return the log that input is recorded in
+     * @throws IllegalStateException if the world was not made from a seed
+     */
+    public InputLog startRecording() {
+        if (seed == null) {
+            throw new IllegalStateException("Only a world made from a seed can be recorded");
+        }
+        inputLog = new InputLog(seed, width, height);
+        return inputLog;
+    }
+
+    /**
+     * Starts or stops timing each phase of a tick.
+     *
+     * @param metrics where to record the times, or null to stop timing
+     */
+    public void setMetrics(FrameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Carries out a player's command.
+     *
+     * @param command what the player asked the ship to do
+     */
+    public void apply(Command command) {
+        switch (command) {
+        case THRUST:
+            // call Ship's method to thrust ship forward
+            ship.up();
+            break;
+        case ROTATE_RIGHT:
+            // call Ship's rotate clockwise method
+            ship.right();
+            break;
+        case ROTATE_LEFT:
+            // call Ship's rotate counterclockwise method
+            ship.left();
+            break;
+        case FIRE:
+            // call Ship's method to shoot
+            shots.fire(ship);
+            break;
+        case HYPERSPACE:
+            // call Ship's hyperspace method
+            ship.shift();
+            break;
+        default:
+            // ignore anything else
+        }
+    }
+
+    /**
+     * Method called when player wants to restart the game.
+     * Resets instance variables to their initial values.
+     */
+    public void restart() {
+        if (inputLog != null) {
+            inputLog.recordRestart(tick);
+        }
+        ship.reset();
+        asteroidAmount = STARTING_ASTEROIDS;
+        asteroids.clear();
+        makeAsteroids();
+        for (int i = 0; i < scatteredAmount; i++) {
+            asteroids.spawnScattered();
+        }
+        shots.clear();
+        score = 0;
+        lives = startingLives;
+        gameLevel = 0;
+        canRespawn = true;
+        isDestroyed = false;
+        gameOver = false;
+    }
+
+    /**
+     * Checks the respawn point in the middle of the screen
+     * for collisions with an asteroid to see if a ship can
+     * respawn without colliding immediate with another asteroid.
+     */
+    private void checkRespawn() {
+        // only a destroyed ship is waiting to respawn
+        if (!isDestroyed) {
+            return;
+        }
+
+        // checks if ship can respawn in the middle without collision
+        indexAsteroids();
+        nearby.clear();
+        grid.query(respawnPoint, nearby);
+        canRespawn = true;
+        for (int i = 0; i < nearby.size(); i++) {
+            Asteroid asteroid = nearby.get(i);
+            // if the respawn point and an asteroid intersect, then canRespawn is false
+            if (asteroid.getBounds2D().intersects(respawnPoint)) {
+                canRespawn = false;
+                break;
+            }
+        }
+        // reinitializes the ship if there is no danger of collision
+        if (canRespawn) {
+            ship.reset();
+            isDestroyed = false;
+        }
+    }
+
+    /**
+     * Puts every asteroid into the collision grid at its current position.
+     */
+    private void indexAsteroids() {
+        grid.clear();
+        if (asteroids.isLevelOfDetail()) {
+            asteroids.indexNear(grid);
+        } else {
+            asteroids.index(grid);
+        }
+    }
+
+    /**
+     * Checks if level of difficulty should be changed.
+     * If yes, this method increases the level of
+     * difficulty.
+     * @return true if the level changed
+     */
+    private boolean checkLevelChange() {
+        // if all asteroids are destroyed, increase difficulty. The field
+        // keeps count as they are destroyed, so nothing is looped over.
+        if (asteroids.getLiveCount() == 0) {
+            gameLevel+= 0.5;
+
+            // reinitialize asteroid field with more asteroids
+            asteroids.clear();
+            asteroidAmount += 1;
+            makeAsteroids();
+            if (GameEvents.LEVEL_CHANGE.isEnabled()) {
+                GameEvents.LevelChangeEvent event = new GameEvents.LevelChangeEvent();
+                event.tick = tick;
+                event.level = asteroidAmount - STARTING_ASTEROIDS;
+                event.asteroidCount = asteroids.size();
+                event.commit();
+            }
+
+            // change speed of asteroids to make game harder
+            for (int slot = 0; slot < asteroids.getSlotLimit(); slot++) {
+                asteroids.changeSpeed(slot, gameLevel);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check whether two object collide.  This tests whether their shapes intersect.
+     * @param shape1 the first shape to test
+     * @param shape2 the second shape to test
+     * @return true if the shapes intersect
+     */
+    static boolean checkCollision(AnimatedObject shape1,
+            AnimatedObject shape2) {
+        return shape2.getBounds2D().intersects(shape1.getBounds2D());
+    }
+
+    /**
+     * Check whether the ship has hit an asteroid. Their bounding boxes are
+     * compared first, and only if those overlap is the ship's triangle
+     * tested against the asteroid's ellipse.
+     * @param ship the ship
+     * @param asteroid the asteroid
+     * @return true if the shapes intersect
+     */
+    static boolean checkCollision(Ship ship, Asteroid asteroid) {
+        Rectangle2D box = asteroid.getBounds2D();
+        if (!box.intersects(ship.getBounds2D())) {
+            return false;
+        }
+        return Collisions.ellipseIntersectsTriangle(box.getCenterX(), box.getCenterY(),
+                box.getWidth() / 2, box.getHeight() / 2,
+                ship.getVertexX(0), ship.getVertexY(0),
+                ship.getVertexX(1), ship.getVertexY(1),
+                ship.getVertexX(2), ship.getVertexY(2));
+    }
+
+    /**
+     * Works out when during the last tick a shot first touched an
+     * asteroid. Both moved in a straight line during the tick, so this
+     * follows the shot as seen from the asteroid, from where it was at the
+     * start of the tick to where it is now.
+     *
+     * Shots pass through asteroids that are already destroyed and
+     * blinking. Otherwise a shot fired from inside one hits it again
+     * straight away, and a pile of them at the respawn point keeps
+     * blinking and the ship never comes back.
+     * @param shot the shot
+     * @param asteroid the asteroid
+     * @return how far through the tick they first touched, from 0 to 1, or
+     *         -1 if they did not
+     */
+    static double timeOfImpact(Shot shot, Asteroid asteroid) {
+        Rectangle2D box = asteroid.getBounds2D();
+        Rectangle2D shotBox = shot.getBounds2D();
+        if (asteroid.isDestroyed() || box.isEmpty() || shotBox.isEmpty()) {
+            return Collisions.NO_HIT;
+        }
+        AsteroidField field = asteroid.getField();
+        int slot = asteroid.getSlot();
+        double radius = shotBox.getWidth() / 2;
+        double halfWidth = box.getWidth() / 2;
+        double halfHeight = box.getHeight() / 2;
+
+        // where the centre of the shot is compared with the centre of the
+        // asteroid, at the start and end of the tick
+        double endX = shotBox.getCenterX() - box.getCenterX();
+        double endY = shotBox.getCenterY() - box.getCenterY();
+        double startX = shot.getPreviousX() + radius - (field.getPreviousX(slot) + halfWidth);
+        double startY = shot.getPreviousY() + radius - (field.getPreviousY(slot) + halfHeight);
+
+        if (Collisions.ellipseIntersectsCircle(0, 0, halfWidth, halfHeight, startX, startY, radius)) {
+            return 0;
+        }
+        return Collisions.sweepPointEllipse(startX, startY, endX, endY,
+                halfWidth + radius, halfHeight + radius);
+    }
+
+    /**
+     * Changes the size of the playfield, for example when the window it is
+     * shown in is resized.
+     *
+     * @param width  the new width, in pixels
+     * @param height the new height, in pixels
+     */
+    public void setSize(int width, int height) {
+        if (width == this.width && height == this.height) {
+            return;
+        }
+        if (inputLog != null) {
+            inputLog.recordResize(tick, width, height);
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the number of ticks stepped so far
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return the player's ship
+     */
+    public Ship getShip() {
+        return ship;
+    }
+
+    /**
+     * @return true while the ship is destroyed and waiting to respawn
+     */
+    public boolean isShipDestroyed() {
+        return isDestroyed;
+    }
+
+    /**
+     * @return the asteroids in the game
+     */
+    public AsteroidField getAsteroids() {
+        return asteroids;
+    }
+
+    /**
+     * @return the shots in flight
+     */
+    public ShotBuffer getShots() {
+        return shots;
+    }
+
+    /**
+     * @return true while at least one shot is in flight
+     */
+    public boolean isShooting() {
+        return shots.getLiveCount() > 0;
+    }
+
+    /**
+     * @return the player's score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the number of lives left
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * @return the current level of difficulty
+     */
+    public int getLevel() {
+        return gameLevel;
+    }
+
+    /**
+     * @return true once the ship has run out of lives
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Sets how many lives each game starts with, and gives the game being
+     * played that many lives left. A huge number keeps a game with nobody
+     * at the controls going, for soak tests and benchmarks.
+     *
+     * @param lives the number of lives. Should be > 0.
+     */
+    public void setStartingLives(int lives) {
+        assert lives > 0;
+        startingLives = lives;
+        this.lives = lives;
+    }
+
+    /**
+     * @return the number of lives each game starts with
+     */
+    public int getStartingLives() {
+        return startingLives;
+    }
+}
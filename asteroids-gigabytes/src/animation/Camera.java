@@ -0,0 +1,149 @@
+package animation;
+
+/**
+ * The part of a large playfield that is shown on screen, kept centred on
+ * the ship.
+ *
+ * The playfield wraps around at its edges, so something just past the
+ * right edge of the playfield may be shown at the left of the screen. The
+ * shift methods work out where on screen something goes, allowing for
+ * that.
+ */
+public class Camera {
+    // The playfield being looked at
+    private final Playfield playfield;
+
+    // Size of the area shown, in pixels
+    private int viewWidth;
+    private int viewHeight;
+
+    // Playfield coordinates of the top left corner of the screen
+    private double left;
+    private double top;
+
+    /**
+     * Creates a camera looking at the top left of a playfield.
+     *
+     * @param playfield  the playfield to look at
+     * @param viewWidth  the width of the area shown
+     * @param viewHeight the height of the area shown
+     */
+    public Camera(Playfield playfield, int viewWidth, int viewHeight) {
+        this.playfield = playfield;
+        setViewSize(viewWidth, viewHeight);
+    }
+
+    /**
+     * Changes the size of the area shown, for example when the window is
+     * resized.
+     *
+     * @param viewWidth  the width of the area shown
+     * @param viewHeight the height of the area shown
+     */
+    public void setViewSize(int viewWidth, int viewHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+    }
+
+    /**
+     * Centres the view on the ship.
+     *
+     * @param ship the ship to follow
+     */
+    public void follow(Ship ship) {
+        // whole pixels, so things are drawn exactly as they would be
+        // without the camera
+        left = wrap(ship.getX() - viewWidth / 2, playfield.getWidth());
+        top = wrap(ship.getY() - viewHeight / 2, playfield.getHeight());
+    }
+
+    /**
+     * Works out how far right of the left edge of the screen something is
+     * drawn, going the short way round the playfield.
+     *
+     * @param x     the left edge of the thing, in playfield coordinates
+     * @param width the width of the thing
+     * @return the left edge of the thing on screen
+     */
+    public double shiftX(double x, double width) {
+        return shift(x - left, width, playfield.getWidth(), viewWidth);
+    }
+
+    /**
+     * Works out how far below the top of the screen something is drawn,
+     * going the short way round the playfield.
+     *
+     * @param y      the top edge of the thing, in playfield coordinates
+     * @param height the height of the thing
+     * @return the top edge of the thing on screen
+     */
+    public double shiftY(double y, double height) {
+        return shift(y - top, height, playfield.getHeight(), viewHeight);
+    }
+
+    /**
+     * Checks whether any of a box can be seen.
+     *
+     * @param x      the left edge of the box, in playfield coordinates
+     * @param y      the top edge of the box
+     * @param width  the width of the box
+     * @param height the height of the box
+     * @return true if some of the box is on screen
+     */
+    public boolean isVisible(double x, double y, double width, double height) {
+        double screenX = shiftX(x, width);
+        double screenY = shiftY(y, height);
+        return screenX < viewWidth && screenX + width > 0
+                && screenY < viewHeight && screenY + height > 0;
+    }
+
+    /**
+     * @return the playfield x coordinate of the left edge of the screen
+     */
+    public double getLeft() {
+        return left;
+    }
+
+    /**
+     * @return the playfield y coordinate of the top edge of the screen
+     */
+    public double getTop() {
+        return top;
+    }
+
+    /**
+     * @return the width of the area shown
+     */
+    public int getViewWidth() {
+        return viewWidth;
+    }
+
+    /**
+     * @return the height of the area shown
+     */
+    public int getViewHeight() {
+        return viewHeight;
+    }
+
+    /**
+     * Wraps a distance from the edge of the screen to the short way round:
+     * things hanging over the seam, or nearer to coming onto the screen
+     * from the left or top than from the right or bottom, get a negative
+     * distance.
+     */
+    private static double shift(double offset, double size, int extent, int view) {
+        offset = wrap(offset, extent);
+        if (offset > extent - size || offset > (extent + view) / 2.0) {
+            offset -= extent;
+        }
+        return offset;
+    }
+
+    /**
+     * @return value wrapped into 0 (inclusive) to extent (exclusive)
+     */
+    private static double wrap(double value, int extent) {
+        value %= extent;
+        return value < 0 ? value + extent : value;
+    }
+}
@@ -0,0 +1,62 @@
+package animation;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * The things a player can tell the ship to do.
+ *
+ * Most commands carry on once per tick for as long as their key is held
+ * down. Hyperspace only happens once per press.
+ */
+public enum Command {
+    // move the ship forward
+    THRUST(true),
+    // turn the ship clockwise
+    ROTATE_RIGHT(true),
+    // turn the ship counterclockwise
+    ROTATE_LEFT(true),
+    // fire a shot
+    FIRE(true),
+    // jump to a random spot
+    HYPERSPACE(false);
+
+    // true if the command is carried out every tick while its key is held
+    private final boolean repeating;
+
+    Command(boolean repeating) {
+        this.repeating = repeating;
+    }
+
+    /**
+     * @return true if the command is carried out every tick while its key
+     *         is held, false if only when the key goes down
+     */
+    public boolean isRepeating() {
+        return repeating;
+    }
+
+    /**
+     * Finds the command for a key. Up arrow thrusts, right and left arrows
+     * turn, space fires and shift jumps to hyperspace.
+     *
+     * @param keyCode the key code from a KeyEvent
+     * @return the command, or null if the key does nothing
+     */
+    public static Command fromKeyCode(int keyCode) {
+        switch (keyCode) {
+        case KeyEvent.VK_UP:
+            return THRUST;
+        case KeyEvent.VK_RIGHT:
+            return ROTATE_RIGHT;
+        case KeyEvent.VK_LEFT:
+            return ROTATE_LEFT;
+        case KeyEvent.VK_SPACE:
+            return FIRE;
+        case KeyEvent.VK_SHIFT:
+            return HYPERSPACE;
+        default:
+            // ignore all other keys
+            return null;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package animation;
+
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * Works out which parts of the screen need repainting, by remembering where
+ * each object was last drawn.
+ *
+ * Every frame, each object's current bounds are passed to update along with
+ * a number that identifies it. If the object has moved, both where it was
+ * and where it is now need repainting, so the union of the two is added to
+ * the dirty list. Objects that have not moved add nothing.
+ *
+ * When there are more dirty rectangles than are worth keeping apart, they
+ * are merged into one that covers them all.
+ */
+public class DirtyRegions {
+    // Most dirty rectangles kept apart before they are merged
+    private static final int MAX_RECTANGLES = 64;
+
+    // Pixels added around every rectangle, for lines drawn on the edge of
+    // a shape and for rounding
+    private static final int PADDING = 2;
+
+    // Where each object was last drawn, by id
+    private double[] lastX = new double[16];
+    private double[] lastY = new double[16];
+    private double[] lastWidth = new double[16];
+    private double[] lastHeight = new double[16];
+
+    // Every id ever updated is below this
+    private int idLimit;
+
+    // The dirty rectangles found since the last clear
+    private final Rectangle[] dirty = new Rectangle[MAX_RECTANGLES];
+    private int dirtyCount;
+
+    // true once the dirty rectangles have been merged into one, which
+    // every later area is added to
+    private boolean merged;
+
+    /**
+     * Creates an empty set of regions.
+     */
+    public DirtyRegions() {
+        for (int i = 0; i < MAX_RECTANGLES; i++) {
+            dirty[i] = new Rectangle();
+        }
+    }
+
+    /**
+     * Records where an object is now, marking the area it moved across as
+     * dirty if it has moved.
+     *
+     * @param id     a number from 0 up that identifies the object
+     * @param bounds where the object is drawn now. Empty bounds mean the
+     *               object is not drawn.
+     */
+    public void update(int id, Rectangle2D bounds) {
+        update(id, bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight());
+    }
+
+    /**
+     * Records where an object is now, marking the area it moved across as
+     * dirty if it has moved.
+     *
+     * @param id     a number from 0 up that identifies the object
+     * @param x      the left edge of the object
+     * @param y      the top edge of the object
+     * @param width  the width of the object, 0 if it is not drawn
+     * @param height the height of the object, 0 if it is not drawn
+     */
+    public void update(int id, double x, double y, double width, double height) {
+        if (width <= 0 || height <= 0) {
+            x = y = width = height = 0;
+        }
+        if (id >= lastX.length) {
+            grow(id + 1);
+        }
+        if (id >= idLimit) {
+            idLimit = id + 1;
+        }
+        if (x == lastX[id] && y == lastY[id] && width == lastWidth[id] && height == lastHeight[id]) {
+            return;
+        }
+        add(lastX[id], lastY[id], lastWidth[id], lastHeight[id]);
+        add(x, y, width, height);
+        lastX[id] = x;
+        lastY[id] = y;
+        lastWidth[id] = width;
+        lastHeight[id] = height;
+    }
+
+    /**
+     * Marks every object from an id up as no longer drawn.
+     *
+     * @param fromId the first id to remove
+     */
+    public void removeFrom(int fromId) {
+        for (int id = fromId; id < idLimit; id++) {
+            update(id, 0, 0, 0, 0);
+        }
+        idLimit = Math.min(idLimit, fromId);
+    }
+
+    /**
+     * Marks an area as dirty, whether or not anything moved there.
+     *
+     * @param x      the left edge of the area
+     * @param y      the top edge of the area
+     * @param width  the width of the area
+     * @param height the height of the area
+     */
+    public void add(double x, double y, double width, double height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        int left = (int) Math.floor(x) - PADDING;
+        int top = (int) Math.floor(y) - PADDING;
+        int right = (int) Math.ceil(x + width) + PADDING;
+        int bottom = (int) Math.ceil(y + height) + PADDING;
+        if (dirtyCount == MAX_RECTANGLES) {
+            // too many to keep apart: merge everything into the first one
+            for (int i = 1; i < dirtyCount; i++) {
+                dirty[0].add(dirty[i]);
+            }
+            dirtyCount = 1;
+            merged = true;
+        }
+        if (merged) {
+            dirty[0].add(left, top);
+            dirty[0].add(right, bottom);
+        } else {
+            dirty[dirtyCount++].setBounds(left, top, right - left, bottom - top);
+        }
+    }
+
+    /**
+     * Marks the whole screen as dirty.
+     *
+     * @param width  the width of the screen
+     * @param height the height of the screen
+     */
+    public void addAll(int width, int height) {
+        dirtyCount = 0;
+        merged = false;
+        add(0, 0, width, height);
+        merged = true;
+    }
+
+    /**
+     * @return the number of dirty rectangles
+     */
+    public int size() {
+        return dirtyCount;
+    }
+
+    /**
+     * Returns a dirty rectangle. It is reused after the next clear, so it
+     * must not be kept or changed.
+     *
+     * @param i which rectangle, 0 to size() - 1
+     * @return the rectangle
+     */
+    public Rectangle get(int i) {
+        return dirty[i];
+    }
+
+    /**
+     * Empties the dirty list, keeping where every object was last drawn.
+     */
+    public void clear() {
+        dirtyCount = 0;
+        merged = false;
+    }
+
+    /**
+     * Forgets where every object was drawn and empties the dirty list.
+     */
+    public void reset() {
+        Arrays.fill(lastX, 0, idLimit, 0);
+        Arrays.fill(lastY, 0, idLimit, 0);
+        Arrays.fill(lastWidth, 0, idLimit, 0);
+        Arrays.fill(lastHeight, 0, idLimit, 0);
+        idLimit = 0;
+        clear();
+    }
+
+    /**
+     * Makes room for more ids.
+     */
+    private void grow(int minimum) {
+        int capacity = Math.max(minimum, lastX.length * 2);
+        lastX = Arrays.copyOf(lastX, capacity);
+        lastY = Arrays.copyOf(lastY, capacity);
+        lastWidth = Arrays.copyOf(lastWidth, capacity);
+        lastHeight = Arrays.copyOf(lastHeight, capacity);
+    }
+}
@@ -0,0 +1,265 @@
+package animation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Times each phase of a frame: the parts of a simulation tick, painting,
+ * and sleeping between them. Every phase has its own FrameTimeHistogram,
+ * so recording never locks or allocates and can be left on in a normal
+ * game.
+ *
+ * The times can be read directly, over JMX once register has been called,
+ * or from a CSV file that startCsvDump appends to every so often.
+ */
+public class FrameMetrics implements FrameMetricsMXBean {
+    /**
+     * The phases of a frame that are timed.
+     */
+    public enum Phase {
+        /** A whole simulation tick */
+        TICK,
+        /** Checking whether the ship can come back */
+        RESPAWN,
+        /** Moving the ship, asteroids and shots */
+        UPDATE,
+        /** Putting the asteroids in the collision grid */
+        INDEX,
+        /** Checking the ship and shots for hits, not counting SPAWN */
+        COLLISION,
+        /** Splitting hit asteroids and starting new levels */
+        SPAWN,
+        /** Drawing a frame */
+        PAINT,
+        /** Handing a frame to the render thread, including waiting for room */
+        HANDOFF,
+        /** Time a frame waited for the render thread to start drawing it */
+        RENDER_LAG,
+        /** Waiting for the next tick or frame */
+        SLEEP;
+
+        // All the phases, kept so values() is not copied on every call
+        private static final Phase[] ALL = values();
+    }
+
+    // Domain used for the JMX name
+    private static final String JMX_DOMAIN = "animation";
+
+    // First line of a CSV dump
+    private static final String CSV_HEADER = "time,phase,count,mean_ns,p50_ns,p99_ns,max_ns";
+
+    // One histogram per phase, in Phase order
+    private final FrameTimeHistogram[] histograms = new FrameTimeHistogram[Phase.ALL.length];
+
+    // The name this is registered under over JMX, or null
+    private ObjectName objectName;
+
+    // Runs the CSV dump, or null when not dumping
+    private ScheduledExecutorService dumper;
+
+    /**
+     * Creates metrics with nothing recorded.
+     */
+    public FrameMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new FrameTimeHistogram();
+        }
+    }
+
+    /**
+     * Records how long one phase took.
+     *
+     * @param phase the phase
+     * @param nanos how long it took, in nanoseconds
+     */
+    public void record(Phase phase, long nanos) {
+        histograms[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * @param phase the phase
+     * @return the times recorded for the phase
+     */
+    public FrameTimeHistogram get(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    @Override
+    public void reset() {
+        for (FrameTimeHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Phase phase : Phase.ALL) {
+            counts.put(phase.name(), get(phase).getCount());
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getMeanNanos() {
+        Map<String, Long> means = new LinkedHashMap<>();
+        for (Phase phase : Phase.ALL) {
+            means.put(phase.name(), get(phase).getMean());
+        }
+        return means;
+    }
+
+    @Override
+    public Map<String, Long> getMedianNanos() {
+        return getPercentile(50);
+    }
+
+    @Override
+    public Map<String, Long> getP99Nanos() {
+        return getPercentile(99);
+    }
+
+    @Override
+    public Map<String, Long> getMaxNanos() {
+        Map<String, Long> maxes = new LinkedHashMap<>();
+        for (Phase phase : Phase.ALL) {
+            maxes.put(phase.name(), get(phase).getMax());
+        }
+        return maxes;
+    }
+
+    /**
+     * @param percentile the share of times, from 0 to 100
+     * @return the time each phase took no longer than for that share
+     */
+    private Map<String, Long> getPercentile(double percentile) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Phase phase : Phase.ALL) {
+            values.put(phase.name(), get(phase).getValueAtPercentile(percentile));
+        }
+        return values;
+    }
+
+    /**
+     * Makes the metrics visible over JMX under
+     * animation:type=FrameMetrics,name=<name>.
+     *
+     * @param name the name to tell these metrics apart from others
+     * @throws JMException if the name is taken or cannot be used
+     */
+    public synchronized void register(String name) throws JMException {
+        ObjectName newName = new ObjectName(JMX_DOMAIN + ":type=FrameMetrics,name="
+                + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+        objectName = newName;
+    }
+
+    /**
+     * Removes the metrics from JMX, if they were registered.
+     *
+     * @throws JMException if they could not be removed
+     */
+    public synchronized void unregister() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    /**
+     * Writes the heading line of a CSV dump.
+     *
+     * @param out where to write
+     * @throws IOException if it cannot be written
+     */
+    public static void writeCsvHeader(Appendable out) throws IOException {
+        out.append(CSV_HEADER).append('\n');
+    }
+
+    /**
+     * Writes one CSV line per phase with the times recorded so far.
+     *
+     * @param out  where to write
+     * @param time the time to put on each line, in milliseconds since 1970
+     * @throws IOException if it cannot be written
+     */
+    public void writeCsv(Appendable out, long time) throws IOException {
+        for (Phase phase : Phase.ALL) {
+            FrameTimeHistogram histogram = get(phase);
+            out.append(Long.toString(time)).append(',')
+                    .append(phase.name()).append(',')
+                    .append(Long.toString(histogram.getCount())).append(',')
+                    .append(Long.toString(histogram.getMean())).append(',')
+                    .append(Long.toString(histogram.getValueAtPercentile(50))).append(',')
+                    .append(Long.toString(histogram.getValueAtPercentile(99))).append(',')
+                    .append(Long.toString(histogram.getMax())).append('\n');
+        }
+    }
+
+    /**
+     * Starts adding the times to the end of a CSV file every so often, on a
+     * background thread. The times are reset after each dump, so each group
+     * of lines covers the time since the one before. This also resets what
+     * get and JMX show. The heading line is written if the file is new.
+     * A dump that fails is reported on System.err and dumping stops.
+     *
+     * @param file         the file to add to
+     * @param periodMillis the time between dumps, in milliseconds
+     */
+    public synchronized void startCsvDump(Path file, long periodMillis) {
+        stopCsvDump();
+        dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "FrameMetrics CSV dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> {
+            try {
+                dumpCsv(file);
+            } catch (IOException e) {
+                System.err.println("Could not write frame metrics to " + file + ": " + e);
+                stopCsvDump();
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the CSV dump started by startCsvDump, if there is one.
+     */
+    public synchronized void stopCsvDump() {
+        if (dumper != null) {
+            dumper.shutdown();
+            dumper = null;
+        }
+    }
+
+    /**
+     * Adds the times so far to the end of a CSV file and resets them.
+     *
+     * @param file the file to add to
+     * @throws IOException if it cannot be written
+     */
+    public void dumpCsv(Path file) throws IOException {
+        boolean isNew = !Files.exists(file) || Files.size(file) == 0;
+        try (Writer out = Files.newBufferedWriter(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (isNew) {
+                writeCsvHeader(out);
+            }
+            writeCsv(out, System.currentTimeMillis());
+        }
+        reset();
+    }
+}
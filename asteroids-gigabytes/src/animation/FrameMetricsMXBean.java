@@ -0,0 +1,40 @@
+package animation;
+
+import java.util.Map;
+
+/**
+ * What FrameMetrics shows over JMX, for example in JConsole or VisualVM.
+ * Each attribute maps the name of a phase of a frame to a number for that
+ * phase, with times in nanoseconds.
+ */
+public interface FrameMetricsMXBean {
+    /**
+     * @return how many times each phase has been timed
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * @return the average time of each phase
+     */
+    Map<String, Long> getMeanNanos();
+
+    /**
+     * @return the median time of each phase
+     */
+    Map<String, Long> getMedianNanos();
+
+    /**
+     * @return the 99th percentile time of each phase
+     */
+    Map<String, Long> getP99Nanos();
+
+    /**
+     * @return the longest time of each phase
+     */
+    Map<String, Long> getMaxNanos();
+
+    /**
+     * Forgets every time recorded so far.
+     */
+    void reset();
+}
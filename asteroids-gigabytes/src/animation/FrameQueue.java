@@ -0,0 +1,282 @@
+package animation;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * A bounded queue of frames waiting to be drawn, passed from the thread
+ * that steps an animation to a thread that does nothing but draw.
+ *
+ * Frames are made once, up front, and used over and over. The writer
+ * claims an empty frame, fills it in and publishes it. The reader takes
+ * the oldest published frame, draws it and releases it to be filled again.
+ * There are enough frames for a full queue plus the one being filled and
+ * the one being drawn, so claiming never has to wait.
+ *
+ * When drawing falls behind and the queue is full, the policy decides what
+ * happens to the next frame published:
+ * <ul>
+ * <li>DROP throws away the oldest frame waiting to make room. The writer
+ * never waits, but some frames are never drawn.</li>
+ * <li>BLOCK makes the writer wait until the reader takes a frame. Every
+ * frame is drawn, but a slow draw holds up the simulation.</li>
+ * </ul>
+ *
+ * The queue keeps track of how many frames are waiting each time one is
+ * published, how long each frame waited before it was taken, how many
+ * frames were dropped and how long the writer spent waiting.
+ *
+ * There must be one writer thread and one reader thread at a time.
+ *
+ * @param <T> the type of frame
+ */
+public class FrameQueue<T> {
+    // Default number of frames that can wait to be drawn
+    public static final int DEFAULT_CAPACITY = 2;
+
+    /**
+     * What to do with a new frame when the queue is full.
+     */
+    public enum Policy {
+        // throw away the oldest waiting frame
+        DROP,
+        // wait for the reader to take one
+        BLOCK
+    }
+
+    /**
+     * A frame and when it was published.
+     */
+    private static final class Slot<T> {
+        // the frame itself
+        private final T frame;
+
+        // System.nanoTime when it was published
+        private long publishNanos;
+
+        private Slot(T frame) {
+            this.frame = frame;
+        }
+    }
+
+    // what to do with a new frame when the queue is full
+    private final Policy policy;
+
+    // frames published and not yet taken, oldest first
+    private final BlockingQueue<Slot<T>> queued;
+
+    // frames free to be claimed
+    private final BlockingQueue<Slot<T>> free;
+
+    // the frame being filled, only used by the writer
+    private Slot<T> claimed;
+
+    // the frame being drawn, only used by the reader
+    private Slot<T> taken;
+
+    // number of frames waiting each time one was published
+    private final FrameTimeHistogram depths = new FrameTimeHistogram();
+
+    // time from each frame being published to it being taken, in
+    // nanoseconds
+    private final FrameTimeHistogram renderLag = new FrameTimeHistogram();
+
+    // time the frame taken last waited, only used by the reader
+    private long lastLagNanos;
+
+    // number of frames published, only written by the writer
+    private volatile long publishedCount;
+
+    // number of frames thrown away unseen, only written by the writer
+    private volatile long droppedCount;
+
+    // total time the writer waited for room, in nanoseconds, only written
+    // by the writer
+    private volatile long blockedNanos;
+
+    /**
+     * Creates a queue with the default capacity that drops old frames.
+     *
+     * @param factory makes an empty frame. It is called once for each frame
+     *                the queue needs.
+     */
+    public FrameQueue(Supplier<? extends T> factory) {
+        this(DEFAULT_CAPACITY, Policy.DROP, factory);
+    }
+
+    /**
+     * Creates a queue.
+     *
+     * @param capacity the most frames that can wait to be drawn. Should be
+     *                 > 0.
+     * @param policy   what to do with a new frame when the queue is full
+     * @param factory  makes an empty frame. It is called once for each
+     *                 frame the queue needs.
+     */
+    public FrameQueue(int capacity, Policy policy, Supplier<? extends T> factory) {
+        assert capacity > 0;
+        int size = Math.max(capacity, 1);
+        this.policy = policy;
+        queued = new ArrayBlockingQueue<>(size);
+        // one more for the writer and one for the reader
+        free = new ArrayBlockingQueue<>(size + 2);
+        for (int i = 0; i < size + 2; i++) {
+            free.add(new Slot<>(factory.get()));
+        }
+    }
+
+    /**
+     * Gets an empty frame for the writer to fill before calling publish.
+     * Claiming again before publishing gives the same frame.
+     *
+     * @return the frame to fill. It may still hold an older frame's
+     *         contents.
+     */
+    public T claim() {
+        if (claimed == null) {
+            claimed = free.poll();
+        }
+        return claimed.frame;
+    }
+
+    /**
+     * Puts the claimed frame at the end of the queue. If the queue is full
+     * the oldest frame is dropped or the writer waits, depending on the
+     * policy.
+     *
+     * @return the number of frames dropped to make room
+     * @throws InterruptedException if interrupted while waiting for room.
+     *                              The frame is not published.
+     */
+    public int publish() throws InterruptedException {
+        Slot<T> slot = claimed;
+        if (slot == null) {
+            return 0;
+        }
+        claimed = null;
+        slot.publishNanos = System.nanoTime();
+        int dropped = 0;
+        if (!queued.offer(slot)) {
+            if (policy == Policy.BLOCK) {
+                long start = System.nanoTime();
+                try {
+                    queued.put(slot);
+                } catch (InterruptedException e) {
+                    free.add(slot);
+                    throw e;
+                } finally {
+                    blockedNanos += System.nanoTime() - start;
+                }
+            } else {
+                while (!queued.offer(slot)) {
+                    // the reader may have taken it first
+                    Slot<T> oldest = queued.poll();
+                    if (oldest != null) {
+                        free.add(oldest);
+                        dropped++;
+                    }
+                }
+                droppedCount += dropped;
+            }
+        }
+        publishedCount++;
+        depths.record(queued.size());
+        return dropped;
+    }
+
+    /**
+     * Waits for the oldest published frame, for the reader to draw. The
+     * frame taken last time is released first if it has not been already.
+     *
+     * @return the frame, which stays the reader's until released
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public T take() throws InterruptedException {
+        release();
+        Slot<T> slot = queued.take();
+        lastLagNanos = System.nanoTime() - slot.publishNanos;
+        renderLag.record(lastLagNanos);
+        taken = slot;
+        return slot.frame;
+    }
+
+    /**
+     * Hands the frame taken last back to be filled again. Does nothing if
+     * it has been released already.
+     */
+    public void release() {
+        if (taken != null) {
+            free.add(taken);
+            taken = null;
+        }
+    }
+
+    /**
+     * @return what is done with a new frame when the queue is full
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return the most frames that can wait to be drawn
+     */
+    public int getCapacity() {
+        return queued.size() + queued.remainingCapacity();
+    }
+
+    /**
+     * @return the number of frames waiting to be drawn. Only a guess while
+     *         the queue is being used.
+     */
+    public int getDepth() {
+        return queued.size();
+    }
+
+    /**
+     * @return the number of frames waiting each time one was published
+     */
+    public FrameTimeHistogram getDepths() {
+        return depths;
+    }
+
+    /**
+     * @return how long each frame waited between being published and being
+     *         taken, in nanoseconds
+     */
+    public FrameTimeHistogram getRenderLag() {
+        return renderLag;
+    }
+
+    /**
+     * @return how long the frame taken last waited between being published
+     *         and being taken, in nanoseconds. Only the reader may call
+     *         this.
+     */
+    public long getLastLagNanos() {
+        return lastLagNanos;
+    }
+
+    /**
+     * @return the number of frames published
+     */
+    public long getPublishedCount() {
+        return publishedCount;
+    }
+
+    /**
+     * @return the number of frames thrown away before they were drawn
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * @return the total time the writer spent waiting for room, in
+     *         nanoseconds
+     */
+    public long getBlockedNanos() {
+        return blockedNanos;
+    }
+}
@@ -0,0 +1,155 @@
+package animation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts how many times took each length, for frame times and similar
+ * measurements in nanoseconds.
+ *
+ * Times are sorted into buckets that double in width with every power of
+ * two, with eight buckets per doubling, so any time is known to within
+ * about 12%. Recording never locks or allocates, so it can be done from the
+ * animation thread and the event dispatch thread at once while another
+ * thread reads the results.
+ */
+public class FrameTimeHistogram {
+    // Number of bits of a time kept below its highest set bit
+    private static final int SUB_BITS = 3;
+
+    // Buckets per doubling
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    // Enough buckets for any non-negative long
+    private static final int BUCKET_COUNT = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    // Number of nanoseconds in a millisecond, for toString
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    // Number of times recorded in each bucket
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    // Number of times recorded
+    private final AtomicLong count = new AtomicLong();
+
+    // Sum of every time recorded
+    private final AtomicLong total = new AtomicLong();
+
+    // Longest time recorded
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one time.
+     *
+     * @param nanos the time, in nanoseconds. Negative times count as 0.
+     */
+    public void record(long nanos) {
+        nanos = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucketOf(nanos));
+        count.incrementAndGet();
+        total.addAndGet(nanos);
+        long previous = max.get();
+        while (nanos > previous && !max.compareAndSet(previous, nanos)) {
+            previous = max.get();
+        }
+    }
+
+    /**
+     * Forgets every time recorded so far.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    /**
+     * @return the number of times recorded
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return the longest time recorded, in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return the average time recorded, in nanoseconds
+     */
+    public long getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : total.get() / n;
+    }
+
+    /**
+     * Finds the time that a given share of the recorded times are no longer
+     * than. The answer is the top of the bucket the time fell in, but never
+     * more than the longest time recorded.
+     *
+     * @param percentile the share of times, from 0 to 100
+     * @return the time, in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long wanted = Math.max(1, (long) Math.ceil(n * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= wanted) {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Works out which bucket a time goes in. Times below SUB_BUCKETS get a
+     * bucket each; above that, the bucket is picked by the highest set bit
+     * and the SUB_BITS bits below it.
+     */
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int mantissa = (int) (nanos >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + mantissa;
+    }
+
+    /**
+     * @return the largest time that goes in a bucket
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long mantissa = bucket % SUB_BUCKETS;
+        long lowest = (SUB_BUCKETS + mantissa) << (exponent - SUB_BITS);
+        long width = 1L << (exponent - SUB_BITS);
+        return lowest + width - 1;
+    }
+
+    /**
+     * @return the number of times and their mean, median, 99th percentile
+     *         and maximum, in milliseconds
+     */
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.2fms p50=%.2fms p99=%.2fms max=%.2fms",
+                getCount(), getMean() / NANOS_PER_MILLI,
+                getValueAtPercentile(50) / NANOS_PER_MILLI,
+                getValueAtPercentile(99) / NANOS_PER_MILLI,
+                getMax() / NANOS_PER_MILLI);
+    }
+}
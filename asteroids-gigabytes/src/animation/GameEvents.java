@@ -0,0 +1,144 @@
+package animation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder events for what happens in a game: ticks, sleeps,
+ * paints, the ship being hit, asteroids splitting and levels changing.
+ * A recording of a long game then shows which of these line up with GC
+ * pauses, safepoints and other latency spikes.
+ *
+ * Each kind of event has an EventType looked up once, and callers check
+ * it before making an event. When nothing is recording that event, the
+ * check is all it costs, and no event object is made.
+ */
+final class GameEvents {
+    // The type of each event, for checking whether it is being recorded
+    static final EventType TICK = EventType.getEventType(TickEvent.class);
+    static final EventType SLEEP = EventType.getEventType(SleepEvent.class);
+    static final EventType PAINT = EventType.getEventType(PaintEvent.class);
+    static final EventType SHIP_HIT = EventType.getEventType(ShipHitEvent.class);
+    static final EventType ASTEROID_SPLIT = EventType.getEventType(AsteroidSplitEvent.class);
+    static final EventType LEVEL_CHANGE = EventType.getEventType(LevelChangeEvent.class);
+
+    private GameEvents() {
+    }
+
+    /**
+     * One simulation tick, from the start of nextFrame to its end.
+     */
+    @Name("animation.Tick")
+    @Label("Tick")
+    @Category("Asteroids")
+    @Description("One simulation tick")
+    @StackTrace(false)
+    static class TickEvent extends Event {
+        @Label("Tick Number")
+        long tick;
+
+        @Label("Catching Up")
+        @Description("True when the tick ran back to back with the one before to catch up")
+        boolean catchingUp;
+    }
+
+    /**
+     * The animation thread sleeping until the next tick or frame.
+     */
+    @Name("animation.Sleep")
+    @Label("Sleep")
+    @Category("Asteroids")
+    @Description("The animation thread waiting for the next tick or frame")
+    @StackTrace(false)
+    static class SleepEvent extends Event {
+        @Label("Requested")
+        @Timespan
+        long requested;
+
+        @Label("Overshoot")
+        @Description("How much longer the sleep took than was asked for")
+        @Timespan
+        long overshoot;
+    }
+
+    /**
+     * One frame being painted.
+     */
+    @Name("animation.Paint")
+    @Label("Paint")
+    @Category("Asteroids")
+    @Description("One frame of the game being painted")
+    @StackTrace(false)
+    static class PaintEvent extends Event {
+        @Label("Clip Width")
+        int clipWidth;
+
+        @Label("Clip Height")
+        int clipHeight;
+
+        @Label("Asteroids")
+        @Description("The number of asteroids in the game")
+        int asteroids;
+    }
+
+    /**
+     * The ship running into an asteroid.
+     */
+    @Name("animation.ShipHit")
+    @Label("Ship Hit")
+    @Category("Asteroids")
+    @StackTrace(false)
+    static class ShipHitEvent extends Event {
+        @Label("Tick Number")
+        long tick;
+
+        @Label("Lives Left")
+        int livesLeft;
+    }
+
+    /**
+     * A shot hitting an asteroid, which may split into smaller ones.
+     */
+    @Name("animation.AsteroidSplit")
+    @Label("Asteroid Split")
+    @Category("Asteroids")
+    @StackTrace(false)
+    static class AsteroidSplitEvent extends Event {
+        @Label("Tick Number")
+        long tick;
+
+        @Label("Size")
+        @Description("1 for a small asteroid, 2 for medium, 3 for large")
+        int size;
+
+        @Label("Spawn Count")
+        @Description("The number of smaller asteroids it split into")
+        int spawnCount;
+    }
+
+    /**
+     * Every asteroid being destroyed and a new level starting.
+     */
+    @Name("animation.LevelChange")
+    @Label("Level Change")
+    @Category("Asteroids")
+    @StackTrace(false)
+    static class LevelChangeEvent extends Event {
+        @Label("Tick Number")
+        long tick;
+
+        @Label("Level")
+        @Description("The number of levels cleared so far")
+        int level;
+
+        @Label("Asteroid Count")
+        @Description("The number of asteroids the new level starts with")
+        int asteroidCount;
+    }
+}
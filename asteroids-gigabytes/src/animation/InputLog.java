@@ -0,0 +1,303 @@
+package animation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A record of everything a player did during a game: which keys were
+ * pressed and released on which tick, plus any restart or change to the
+ * size of the playfield.
+ * Together with the seed the world was created with, this is enough to play
+ * the same game again exactly, as fast as the CPU allows.
+ *
+ * Logs are saved in a compact binary form. After a short header, each entry
+ * is the number of ticks since the previous entry followed by the key code,
+ * both as variable-length integers, so a typical key press takes two bytes.
+ * A release is stored as a RELEASE code followed by the key code.
+ *
+ * Logs saved by version 1 only hold presses, from before the world kept
+ * track of held keys. Each of their presses is replayed as a press and an
+ * immediate release, which plays out the same as it did then.
+ */
+public class InputLog {
+    // Marks the start of a saved log
+    private static final int MAGIC = 0x41535452;
+
+    // Version of the saved format
+    private static final int VERSION = 2;
+
+    // First version that records key releases
+    private static final int RELEASES_VERSION = 2;
+
+    // Codes stored in place of a key code for a playfield resize, a restart
+    // or a key release. No key has any of these codes.
+    private static final int RESIZE = 0;
+    private static final int RESTART = 1;
+    private static final int RELEASE = 2;
+
+    // The seed of the world the log was recorded from
+    private final long seed;
+
+    // Width and height of the playfield when recording started
+    private final int width;
+    private final int height;
+
+    // For each entry, the tick it happened on and the key code (or RESIZE,
+    // RESTART or RELEASE)
+    private long[] ticks = new long[64];
+    private int[] codes = new int[64];
+
+    // For resize entries, the new width and height. For release entries,
+    // the key code in the first of the pair.
+    private int[] sizes = new int[128];
+
+    // false for logs loaded from before releases were recorded, whose
+    // presses are each followed by a release when replayed
+    private boolean releasesRecorded = true;
+
+    private int count;
+
+    /**
+     * Creates an empty log for a world.
+     *
+     * @param seed   the seed the world was created with
+     * @param width  the width of the playfield when recording starts
+     * @param height the height of the playfield when recording starts
+     */
+    public InputLog(long seed, int width, int height) {
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Records a key press.
+     *
+     * @param tick    the tick the key was pressed on
+     * @param keyCode the key code from the KeyEvent
+     */
+    public void recordKey(long tick, int keyCode) {
+        assert keyCode != RESIZE && keyCode != RESTART && keyCode != RELEASE;
+        add(tick, keyCode, 0, 0);
+    }
+
+    /**
+     * Records a key release.
+     *
+     * @param tick    the tick the key was released on
+     * @param keyCode the key code from the KeyEvent
+     */
+    public void recordRelease(long tick, int keyCode) {
+        add(tick, RELEASE, keyCode, 0);
+    }
+
+    /**
+     * Records the game being restarted.
+     *
+     * @param tick the tick the game was restarted on
+     */
+    public void recordRestart(long tick) {
+        add(tick, RESTART, 0, 0);
+    }
+
+    /**
+     * Records a change in the size of the playfield.
+     *
+     * @param tick   the tick the playfield changed size on
+     * @param width  the new width
+     * @param height the new height
+     */
+    public void recordResize(long tick, int width, int height) {
+        add(tick, RESIZE, width, height);
+    }
+
+    /**
+     * @return the number of entries in the log
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the seed of the world the log was recorded from
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Makes a new world just like the one the log was recorded from.
+     *
+     * @return the new world
+     */
+    public AsteroidsWorld newWorld() {
+        return new AsteroidsWorld(width, height, seed);
+    }
+
+    /**
+     * Plays the log back into a fresh world, without any pauses between
+     * ticks.
+     *
+     * @param tickCount the number of ticks to run
+     * @return the world after the last tick
+     */
+    public AsteroidsWorld replay(long tickCount) {
+        AsteroidsWorld world = newWorld();
+        replay(world, tickCount);
+        return world;
+    }
+
+    /**
+     * Plays the log back into a world made by newWorld. Before each tick,
+     * every entry recorded for that tick is applied in the order it was
+     * recorded.
+     *
+     * @param world     the world to play into
+     * @param tickCount the number of ticks to run
+     */
+    public void replay(AsteroidsWorld world, long tickCount) {
+        int next = 0;
+        for (long i = 0; i < tickCount; i++) {
+            long tick = world.getTick();
+            while (next < count && ticks[next] <= tick) {
+                if (codes[next] == RESIZE) {
+                    world.setSize(sizes[2 * next], sizes[2 * next + 1]);
+                } else if (codes[next] == RESTART) {
+                    world.restart();
+                } else if (codes[next] == RELEASE) {
+                    world.keyReleased(sizes[2 * next]);
+                } else {
+                    world.keyPressed(codes[next]);
+                    if (!releasesRecorded) {
+                        world.keyReleased(codes[next]);
+                    }
+                }
+                next++;
+            }
+            world.step();
+        }
+    }
+
+    /**
+     * Saves the log.
+     *
+     * @param out where to write the log. It is not closed.
+     * @throws IOException if the log cannot be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeLong(seed);
+        writeVarInt(data, width);
+        writeVarInt(data, height);
+        writeVarInt(data, count);
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            writeVarLong(data, ticks[i] - previous);
+            writeVarInt(data, codes[i]);
+            if (codes[i] == RESIZE) {
+                writeVarInt(data, sizes[2 * i]);
+                writeVarInt(data, sizes[2 * i + 1]);
+            } else if (codes[i] == RELEASE) {
+                writeVarInt(data, sizes[2 * i]);
+            }
+            previous = ticks[i];
+        }
+        data.flush();
+    }
+
+    /**
+     * Loads a log saved by writeTo.
+     *
+     * @param in where to read the log from. It is not closed.
+     * @return the log
+     * @throws IOException if the log cannot be read or is not a saved log
+     */
+    public static InputLog readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not an Asteroids input log");
+        }
+        int version = data.readByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unknown input log version " + version);
+        }
+        long seed = data.readLong();
+        int width = readVarInt(data);
+        int height = readVarInt(data);
+        InputLog log = new InputLog(seed, width, height);
+        log.releasesRecorded = version >= RELEASES_VERSION;
+        int entries = readVarInt(data);
+        long tick = 0;
+        for (int i = 0; i < entries; i++) {
+            tick += readVarLong(data);
+            int code = readVarInt(data);
+            if (code == RESIZE) {
+                log.recordResize(tick, readVarInt(data), readVarInt(data));
+            } else if (code == RESTART) {
+                log.recordRestart(tick);
+            } else if (code == RELEASE && log.releasesRecorded) {
+                log.recordRelease(tick, readVarInt(data));
+            } else {
+                log.recordKey(tick, code);
+            }
+        }
+        return log;
+    }
+
+    /**
+     * Adds an entry, growing the arrays if they are full.
+     */
+    private void add(long tick, int code, int newWidth, int newHeight) {
+        assert count == 0 || tick >= ticks[count - 1];
+        if (count == codes.length) {
+            ticks = Arrays.copyOf(ticks, count * 2);
+            codes = Arrays.copyOf(codes, count * 2);
+            sizes = Arrays.copyOf(sizes, count * 4);
+        }
+        ticks[count] = tick;
+        codes[count] = code;
+        sizes[2 * count] = newWidth;
+        sizes[2 * count + 1] = newHeight;
+        count++;
+    }
+
+    /**
+     * Writes a non-negative number using 7 bits per byte, low bits first.
+     */
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Reads a number written by writeVarLong.
+     */
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed number in input log");
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        return (int) readVarLong(in);
+    }
+}
@@ -0,0 +1,133 @@
+package animation;
+
+/**
+ * Hands key presses and releases from the Swing event thread to the
+ * animation thread without locking.
+ *
+ * Exactly one thread may call offer and exactly one other thread may call
+ * drainTo. Each side only writes its own counter: the event thread fills a
+ * slot and then moves tail on, the animation thread empties slots and then
+ * moves head on. Both counters are volatile, so everything written into a
+ * slot before tail moves is seen by the thread that reads tail. Events are
+ * stored as plain ints and booleans in arrays made up front, so neither
+ * side allocates.
+ *
+ * The game drains the queue once at the start of each tick, so a key takes
+ * effect on the next tick after it is pressed.
+ */
+public class InputQueue {
+    // Default number of events the queue holds, enough for a burst of
+    // keys several seconds long
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // key code and whether it was pressed (true) or released (false) for
+    // each slot
+    private final int[] keyCodes;
+    private final boolean[] presses;
+
+    // capacity - 1, for finding a slot from a counter. The capacity is a
+    // power of two.
+    private final int mask;
+
+    // number of events taken out so far, only written by the consumer
+    private volatile long head;
+
+    // number of events put in so far, only written by the producer
+    private volatile long tail;
+
+    // number of events thrown away because the queue was full, only
+    // written by the producer
+    private volatile long dropped;
+
+    /**
+     * Creates a queue with the default capacity.
+     */
+    public InputQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a queue.
+     *
+     * @param capacity the most events waiting at once, rounded up to a
+     *                 power of two. Should be > 0.
+     */
+    public InputQueue(int capacity) {
+        assert capacity > 0;
+        int size = Integer.highestOneBit(Math.max(capacity, 1));
+        if (size < capacity) {
+            size *= 2;
+        }
+        keyCodes = new int[size];
+        presses = new boolean[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Adds a key event to the end of the queue. Only the producer thread
+     * may call this.
+     *
+     * @param keyCode the key code from the KeyEvent
+     * @param pressed true for a press, false for a release
+     * @return true if the event was added, false if the queue was full and
+     *         it was thrown away
+     */
+    public boolean offer(int keyCode, boolean pressed) {
+        long t = tail;
+        if (t - head == keyCodes.length) {
+            dropped++;
+            return false;
+        }
+        int index = (int) t & mask;
+        keyCodes[index] = keyCode;
+        presses[index] = pressed;
+        // publishes the slot to the consumer
+        tail = t + 1;
+        return true;
+    }
+
+    /**
+     * Passes every waiting event to a world, oldest first. Only the
+     * consumer thread may call this.
+     *
+     * @param world the world to pass the events to
+     * @return the number of events passed on
+     */
+    public int drainTo(AsteroidsWorld world) {
+        long h = head;
+        long t = tail;
+        for (long i = h; i < t; i++) {
+            int index = (int) i & mask;
+            if (presses[index]) {
+                world.keyPressed(keyCodes[index]);
+            } else {
+                world.keyReleased(keyCodes[index]);
+            }
+        }
+        // hands the slots back to the producer
+        head = t;
+        return (int) (t - h);
+    }
+
+    /**
+     * @return the number of events waiting. Only a guess while the other
+     *         thread is using the queue.
+     */
+    public int size() {
+        return (int) (tail - head);
+    }
+
+    /**
+     * @return the most events that can wait in the queue at once
+     */
+    public int getCapacity() {
+        return keyCodes.length;
+    }
+
+    /**
+     * @return the number of events thrown away because the queue was full
+     */
+    public long getDroppedCount() {
+        return dropped;
+    }
+}
@@ -0,0 +1,17 @@
+package animation;
+
+/**
+ * The area that animated objects move around in. Objects that reach an
+ * edge wrap around to the other side.
+ */
+public interface Playfield {
+    /**
+     * @return the width of the playfield, in pixels
+     */
+    public int getWidth();
+
+    /**
+     * @return the height of the playfield, in pixels
+     */
+    public int getHeight();
+}
@@ -0,0 +1,381 @@
+package animation;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Plays many games at once without windows, as fast as the CPU allows, for
+ * tuning and for trying out computer players.
+ *
+ * Each session is an AsteroidsWorld with a budget of ticks and, if wanted,
+ * a controller that is called before every tick to press keys or apply
+ * commands. A session ends when it has used its budget or its game is
+ * over. Nothing sleeps between ticks.
+ *
+ * Sessions can be run in two ways:
+ * <ul>
+ * <li>VIRTUAL_THREADS gives every session its own virtual thread, so
+ * thousands of sessions can be in progress at once. Virtual threads need
+ * Java 21; on older versions the sessions are run on a fixed pool
+ * instead.</li>
+ * <li>BATCHED has a fixed pool of worker threads take sessions in batches
+ * and play each one through before moving on to the next.</li>
+ * </ul>
+ *
+ * The runner adds up the ticks stepped by every session, so the
+ * throughput of the whole run can be read off at the end, or while it is
+ * running from another thread.
+ */
+public class SessionRunner {
+    // Sessions claimed by a worker at once in BATCHED mode
+    public static final int DEFAULT_BATCH_SIZE = 16;
+
+    // Ticks a session steps between adding to the shared tick count
+    private static final int TICKS_PER_FLUSH = 1024;
+
+    // Number of nanoseconds in a second
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    /**
+     * How sessions are spread over threads.
+     */
+    public enum Mode {
+        // one virtual thread per session
+        VIRTUAL_THREADS,
+        // a fixed pool of threads, each playing batches of sessions
+        BATCHED
+    }
+
+    /**
+     * One game in a run, with its budget and controller.
+     */
+    public static final class Session {
+        // the game being played
+        private final AsteroidsWorld world;
+
+        // most ticks to step
+        private final long tickBudget;
+
+        // called before every tick, or null to leave the ship alone
+        private final Consumer<AsteroidsWorld> controller;
+
+        // ticks stepped so far
+        private volatile long ticksRun;
+
+        // what went wrong, or null if nothing did
+        private volatile Throwable failure;
+
+        private Session(AsteroidsWorld world, long tickBudget,
+                Consumer<AsteroidsWorld> controller) {
+            this.world = world;
+            this.tickBudget = tickBudget;
+            this.controller = controller;
+        }
+
+        /**
+         * @return the game being played. Only safe to look at once the run
+         *         is over.
+         */
+        public AsteroidsWorld getWorld() {
+            return world;
+        }
+
+        /**
+         * @return the most ticks the session will step
+         */
+        public long getTickBudget() {
+            return tickBudget;
+        }
+
+        /**
+         * @return the number of ticks stepped so far
+         */
+        public long getTicksRun() {
+            return ticksRun;
+        }
+
+        /**
+         * @return the exception that stopped the session, or null if it ran
+         *         to the end
+         */
+        public Throwable getFailure() {
+            return failure;
+        }
+    }
+
+    // every session in the order they were added
+    private final List<Session> sessions = new ArrayList<>();
+
+    // ticks stepped by every session together
+    private final LongAdder totalTicks = new LongAdder();
+
+    // System.nanoTime at the start of the last run, and at its end or 0
+    // while it is running
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    // Sessions claimed by a worker at once in BATCHED mode
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Adds a session that steps a world without any input.
+     *
+     * @param world      the game to play
+     * @param tickBudget the most ticks to step
+     * @return the session
+     */
+    public Session add(AsteroidsWorld world, long tickBudget) {
+        return add(world, tickBudget, null);
+    }
+
+    /**
+     * Adds a session.
+     *
+     * @param world      the game to play
+     * @param tickBudget the most ticks to step
+     * @param controller called with the world before every tick, or null.
+     *                   It is only ever called from one thread at a time.
+     * @return the session
+     */
+    public Session add(AsteroidsWorld world, long tickBudget,
+            Consumer<AsteroidsWorld> controller) {
+        Session session = new Session(world, tickBudget, controller);
+        sessions.add(session);
+        return session;
+    }
+
+    /**
+     * @return every session, in the order they were added
+     */
+    public List<Session> getSessions() {
+        return Collections.unmodifiableList(sessions);
+    }
+
+    /**
+     * Sets how many sessions a worker takes at once in BATCHED mode. Larger
+     * batches mean less contention between workers but a less even share
+     * of the work at the end of a run.
+     *
+     * @param batchSize the number of sessions per batch. Should be > 0.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * @return true if this Java has virtual threads
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return virtualThreadFactory() != null;
+    }
+
+    /**
+     * Plays every session to the end of its budget or game, returning once
+     * all of them have finished. A session that throws is stopped and the
+     * exception kept in it, and the others carry on.
+     *
+     * @param mode    how to spread the sessions over threads
+     * @param threads the number of threads in a fixed pool. Only used in
+     *                BATCHED mode, or when virtual threads are not there.
+     * @throws InterruptedException if interrupted while waiting for the
+     *                              sessions, which are then stopped
+     */
+    public void run(Mode mode, int threads) throws InterruptedException {
+        totalTicks.reset();
+        endNanos = 0;
+        startNanos = System.nanoTime();
+        ExecutorService executor = null;
+        if (mode == Mode.VIRTUAL_THREADS) {
+            executor = virtualThreadExecutor();
+        }
+        try {
+            if (executor != null) {
+                for (Session session : sessions) {
+                    executor.execute(() -> play(session));
+                }
+            } else {
+                int workers = Math.max(threads, 1);
+                executor = Executors.newFixedThreadPool(workers);
+                AtomicInteger next = new AtomicInteger();
+                for (int i = 0; i < workers; i++) {
+                    executor.execute(() -> playBatches(next));
+                }
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            endNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * @return the number of ticks stepped so far in the last run, by every
+     *         session together
+     */
+    public long getTotalTicks() {
+        return totalTicks.sum();
+    }
+
+    /**
+     * @return the time taken by the last run, or so far if it is still
+     *         running, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        if (startNanos == 0) {
+            return 0;
+        }
+        long end = endNanos;
+        return (end != 0 ? end : System.nanoTime()) - startNanos;
+    }
+
+    /**
+     * @return the ticks stepped per second in the last run, by every
+     *         session together
+     */
+    public double getTicksPerSecond() {
+        long elapsed = getElapsedNanos();
+        return elapsed > 0 ? getTotalTicks() * NANOS_PER_SECOND / elapsed : 0;
+    }
+
+    /**
+     * Takes batches of sessions until there are none left, playing each
+     * one through.
+     *
+     * @param next the index of the next session nobody has taken
+     */
+    private void playBatches(AtomicInteger next) {
+        while (!Thread.currentThread().isInterrupted()) {
+            int first = next.getAndAdd(batchSize);
+            if (first >= sessions.size()) {
+                return;
+            }
+            int last = Math.min(first + batchSize, sessions.size());
+            for (int i = first; i < last; i++) {
+                play(sessions.get(i));
+            }
+        }
+    }
+
+    /**
+     * Steps one session until its budget is used, its game is over or the
+     * thread is interrupted.
+     */
+    private void play(Session session) {
+        AsteroidsWorld world = session.world;
+        Consumer<AsteroidsWorld> controller = session.controller;
+        long ticks = session.ticksRun;
+        long unflushed = 0;
+        try {
+            while (ticks < session.tickBudget && !world.isGameOver()) {
+                if (controller != null) {
+                    controller.accept(world);
+                }
+                world.step();
+                ticks++;
+                if (++unflushed == TICKS_PER_FLUSH) {
+                    totalTicks.add(unflushed);
+                    unflushed = 0;
+                    session.ticksRun = ticks;
+                    if (Thread.currentThread().isInterrupted()) {
+                        break;
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            session.failure = e;
+        } finally {
+            totalTicks.add(unflushed);
+            session.ticksRun = ticks;
+        }
+    }
+
+    /**
+     * @return an executor that starts a new virtual thread for every task,
+     *         or null if this Java does not have virtual threads
+     */
+    private static ExecutorService virtualThreadExecutor() {
+        Method factory = virtualThreadFactory();
+        if (factory == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) factory.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Looks up Executors.newVirtualThreadPerTaskExecutor, which is only
+     * there from Java 21 on. The game is built for older versions too, so
+     * it is called by reflection.
+     *
+     * @return the method, or null if there is none
+     */
+    private static Method virtualThreadFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A controller that fires every 5 ticks and turns every 7, so shots go
+     * all round the ship and asteroids get split. It keeps nothing between
+     * calls, so any number of sessions can share it.
+     *
+     * @param world the game to steer
+     */
+    public static void fireAndTurn(AsteroidsWorld world) {
+        if (world.getTick() % 5 == 0) {
+            world.apply(Command.FIRE);
+        }
+        if (world.getTick() % 7 == 0) {
+            world.apply(Command.ROTATE_RIGHT);
+        }
+    }
+
+    /**
+     * Plays a number of games with nobody at the controls and prints how
+     * fast they went.
+     *
+     * @param args the number of sessions, the ticks per session, the mode
+     *             (VIRTUAL_THREADS or BATCHED) and the number of threads in
+     *             a fixed pool, each optional
+     * @throws InterruptedException if interrupted while the games run
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long ticks = args.length > 1 ? Long.parseLong(args[1]) : 10_000;
+        Mode mode = args.length > 2 ? Mode.valueOf(args[2]) : Mode.BATCHED;
+        int threads = args.length > 3 ? Integer.parseInt(args[3])
+                : Runtime.getRuntime().availableProcessors();
+
+        SessionRunner runner = new SessionRunner();
+        for (int i = 0; i < count; i++) {
+            AsteroidsWorld world = new AsteroidsWorld(AsteroidsWorld.DEFAULT_WIDTH,
+                    AsteroidsWorld.DEFAULT_HEIGHT, i);
+            runner.add(world, ticks, SessionRunner::fireAndTurn);
+        }
+        if (mode == Mode.VIRTUAL_THREADS && !isVirtualThreadsSupported()) {
+            System.out.println("No virtual threads here, using " + threads + " threads");
+        }
+        runner.run(mode, threads);
+        System.out.printf("%d sessions, %d ticks in %.2f s: %.0f ticks/s%n", count,
+                runner.getTotalTicks(), runner.getElapsedNanos() / NANOS_PER_SECOND,
+                runner.getTicksPerSecond());
+    }
+}
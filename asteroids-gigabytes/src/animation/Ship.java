@@ -1,71 +1,104 @@
 package animation;
 import java.awt.Color;
-import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Polygon;
 import java.awt.Shape;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.util.Random;
 
-import javax.swing.JFrame;
-import javax.swing.JPanel;
-
-import animation.AbstractAnimation;
-import animation.AnimatedObject;
-
 /**
+ * The player's ship, a triangle that can turn, move forward, jump to a
+ * random spot and fire shots.
  *
- *
+ * The ship's outline is worked out only when its position or angle has
+ * changed, and the same Shape object is handed back every time, so asking
+ * for it while checking collisions or painting does not allocate.
  */
-public class Ship extends JPanel implements AnimatedObject {
-    Random random = new Random();
+public class Ship implements AnimatedObject {
+    // source of random numbers for hyperspace jumps
+    private final Random random;
+
+    // Corners of the triangle before it is moved and rotated
+    private static final double[] MODEL_X = {10, 0, -10};
+    private static final double[] MODEL_Y = {20, -20, 20};
 
-    // The animation that this object is part of.
-    private AbstractAnimation animation;
+    // Number of corners in the ship's outline
+    public static final int VERTEX_COUNT = 3;
+
+    // The playfield that this object moves in.
+    private Playfield playfield;
 
-    // The shape that is drawn
-    private Polygon ship;
-    
     // the height of the ship
-    private final double SHIP_HEIGHT;
-    
+    private final double SHIP_HEIGHT = 40;
+
     // the width of the ship
-    private final double SHIP_WIDTH;
+    private final double SHIP_WIDTH = 20;
 
     // The left edge of the shape
     private int x;
 
     // The top edge of the shape
     private int y;
-    
+
     private double angle;
-    
-    //variables that give angle at which ship should move
-    private double dirX;
-    private double dirY;
-    
+
+    // position and angle at the start of the tick, for drawing the ship
+    // part way through it
+    private int previousX;
+    private int previousY;
+    private double previousAngle;
+
+    // sine and cosine of angle
+    private double sin = 0;
+    private double cos = 1;
+
+    // true once the ship has been hit and should no longer be drawn
+    private boolean destroyed = false;
+
+    // corners of the ship after moving and rotating it
+    private final double[] vertexX = new double[VERTEX_COUNT];
+    private final double[] vertexY = new double[VERTEX_COUNT];
+
+    // the shape that is drawn, rebuilt from the corners when dirty
+    private final Path2D.Double shape = new Path2D.Double(Path2D.WIND_EVEN_ODD, VERTEX_COUNT + 1);
+
+    // the bounding box of the shape
+    private final Rectangle2D.Double bounds = new Rectangle2D.Double();
+
+    // true when x, y or angle changed since the shape was last built
+    private boolean shapeDirty = true;
+
     /**
     * Constructs a triangle for the ship
     */
-    public Ship (AbstractAnimation animation) {
-       this.animation = animation;
-       //gets points for making the triangle
-      ship = new Polygon();
-      ship.addPoint(10, 20);
-      ship.addPoint(0, -20);
-      ship.addPoint(-10, 20);
-        
-      //initialization of variables
-      dirX = 0;
-      dirY = 1;
+    public Ship (Playfield playfield) {
+      this(playfield, new Random());
+    }
 
+    /**
+    * Constructs a triangle for the ship that takes its hyperspace jumps
+    * from a given source of random numbers
+    */
+    public Ship (Playfield playfield, Random random) {
+      this.playfield = playfield;
+      this.random = random;
+      reset();
+    }
+
+    /**
+     * Puts the ship back as it was when first made, pointing up in the
+     * middle of the screen and not destroyed, so the same object can be
+     * used again after the ship respawns
+     */
+    public void reset() {
       //holds the place the ship will originally appear in middle of screen
       x = 450;
       y = 450;
-      
-      SHIP_HEIGHT = ship.getBounds2D().getHeight();
-      SHIP_WIDTH = ship.getBounds2D().getWidth();
+      setAngle(0);
+      destroyed = false;
+      shapeDirty = true;
+      savePreviousState();
     }
 
 
@@ -89,6 +122,7 @@ public class Ship extends JPanel implements AnimatedObject {
         //moves the ship forward
         x+=getXDirection() * 2;
         y+=getYDirection() * 2;
+        shapeDirty = true;
     }
 
     /**
@@ -96,8 +130,7 @@ public class Ship extends JPanel implements AnimatedObject {
      *
      */
     public void right() {
-        angle = angle + Math.PI/15;
-        getShape();
+        setAngle(angle + Math.PI/15);
     }
 
     /**
@@ -105,8 +138,18 @@ public class Ship extends JPanel implements AnimatedObject {
      *
      */
     public void left() {
-       angle = angle - Math.PI/15;
-       getShape();
+       setAngle(angle - Math.PI/15);
+    }
+
+    /**
+     * Turns the ship to an angle and keeps its sine and cosine
+     * @param newAngle the angle in radians, clockwise from pointing up
+     */
+    private void setAngle(double newAngle) {
+        angle = newAngle;
+        sin = Math.sin(angle);
+        cos = Math.cos(angle);
+        shapeDirty = true;
     }
 
     /**
@@ -115,8 +158,17 @@ public class Ship extends JPanel implements AnimatedObject {
      */
     public Shot space() {
       //shooting method that will be implemented
-      Shot shot = new Shot(animation, x, y, getXDirection(), getYDirection());
-      
+      return space(new Shot(playfield));
+    }
+
+    /**
+     * Fires a shot that is not in flight, usually one from a ShotBuffer,
+     * from the ship in the direction it is pointing
+     * @param shot the shot to fire
+     * @return the shot
+     */
+    public Shot space(Shot shot) {
+      shot.reset(x, y, getXDirection(), getYDirection());
       return shot;
     }
 
@@ -130,107 +182,283 @@ public class Ship extends JPanel implements AnimatedObject {
         int ranY = random.nextInt(590);
         x = ranX;
         y = ranY;
+        shapeDirty = true;
+        // jump straight there rather than sliding across the screen
+        previousX = x;
+        previousY = y;
     }
-    
+
 
     @Override
     /**
-     * Updates the animated object for the next frame of the animation
-     * and repaints the window.
+     * Updates the animated object for the next frame of the animation.
      */
     //@Override
     public void nextFrame() {
-        getShape();
         checkIfEdge();
-        repaint();
-        
     }
-    
+
     /**
      * checks to see if asteroid is over edges of window: wraps around to other
      * side if it is
      */
     private void checkIfEdge() {
+        int oldX = x;
+        int oldY = y;
+
         // Check if the right edge of the asteroid is beyond the right
         // edge of the window. If it is, move it to the left edge
-        if (x + SHIP_WIDTH > animation.getWidth()) {
+        if (x + SHIP_WIDTH > playfield.getWidth()) {
             x = 0;
         }
         // Check if the left edge of the asteroid is beyond the left
         // edge of the window. If it is, move it to the right edge
         else if (x < 0) {
-            x = (int) (animation.getWidth() - SHIP_WIDTH);
+            x = (int) (playfield.getWidth() - SHIP_WIDTH);
         }
 
         // Check if bottom edge of the asteroid is below the
         // edge of the window. If it is, put it at the top
 
-        if (y + SHIP_HEIGHT > animation.getHeight()) {
+        if (y + SHIP_HEIGHT > playfield.getHeight()) {
             y = 0;
         }
         // check to see if top edge of asteroid is above
         // the top of the window. If it is, move to the bottom
         else if (y < 0) {
-            y = (int) (animation.getHeight() - SHIP_HEIGHT);
+            y = (int) (playfield.getHeight() - SHIP_HEIGHT);
+        }
+
+        if (x != oldX || y != oldY) {
+            shapeDirty = true;
+            // wrap straight to the other side rather than sliding across
+            previousX = x;
+            previousY = y;
+        }
+    }
+
+    @Override
+    public void savePreviousState() {
+        previousX = x;
+        previousY = y;
+        previousAngle = angle;
+    }
+
+    /**
+     * Draws the ship part way between where it was at the start of the
+     * tick and where it is now
+     * @param g the graphics context to draw on
+     * @param alpha how far through the tick, from 0 to 1
+     */
+    @Override
+    public void paint(Graphics2D g, double alpha) {
+        if (previousX == x && previousY == y && previousAngle == angle) {
+            paint(g);
+            return;
         }
+        AffineTransform saved = g.getTransform();
+        g.translate(getInterpolatedX(alpha) - x, getInterpolatedY(alpha) - y);
+        g.rotate(getInterpolatedAngle(alpha) - angle, x, y);
+        paint(g);
+        g.setTransform(saved);
+    }
+
+    /**
+     * @param alpha how far through the tick, from 0 to 1
+     * @return the x coordinate the ship turns around, part way through
+     *         the tick
+     */
+    public double getInterpolatedX(double alpha) {
+        return previousX + (x - previousX) * alpha;
+    }
+
+    /**
+     * @param alpha how far through the tick, from 0 to 1
+     * @return the y coordinate the ship turns around, part way through
+     *         the tick
+     */
+    public double getInterpolatedY(double alpha) {
+        return previousY + (y - previousY) * alpha;
+    }
+
+    /**
+     * @param alpha how far through the tick, from 0 to 1
+     * @return the angle of the ship part way through the tick
+     */
+    public double getInterpolatedAngle(double alpha) {
+        return previousAngle + (angle - previousAngle) * alpha;
     }
-    
+
       /**
        * Returns the shape after applying the current translation
-       * and rotation
+       * and rotation. The same object is returned every time and is
+       * updated in place when the ship moves, so callers should not
+       * keep it expecting it to stay the same.
        * @return the shape located as we want it to appear
        */
       public Shape getShape() {
-          // AffineTransform captures the movement and rotation we
-          // want the shape to have
-          AffineTransform at1 = new AffineTransform();
-         
-              
-              at1.translate(x, y);
-              // Rotate the shape 45 degrees to the right
-              at1.rotate(angle);
-
-              double dirX2 = (dirX*Math.cos(angle))-(dirY*Math.sin(angle));
-              double dirY2 = (dirX*Math.sin(angle))+ (dirY*Math.cos(angle));
-              dirX= dirX2;
-              dirY=dirY2;
-              AffineTransform at2 = at1;
-              
-              // Create a shape that looks like our triangle, but centered
-              // and rotated as specified by the AffineTransform object.
-              return at2.createTransformedShape(ship);
-              
-      
-
-      }
-      
-      /**
-       * Returns the direction the x 
+          updateShape();
+          return shape;
+      }
+
+      /**
+       * Returns the bounding box of the ship's shape. Like getShape, this
+       * is the same object every time and must not be changed.
+       * @return the bounding box of the ship
+       */
+      @Override
+      public Rectangle2D getBounds2D() {
+          updateShape();
+          return bounds;
+      }
+
+      /**
+       * Returns one corner of the ship after moving and rotating it
+       * @param i the corner, 0 to VERTEX_COUNT - 1
+       * @return the x coordinate of the corner
+       */
+      public double getVertexX(int i) {
+          updateShape();
+          return vertexX[i];
+      }
+
+      /**
+       * Returns one corner of the ship after moving and rotating it
+       * @param i the corner, 0 to VERTEX_COUNT - 1
+       * @return the y coordinate of the corner
+       */
+      public double getVertexY(int i) {
+          updateShape();
+          return vertexY[i];
+      }
+
+      /**
+       * @return true if the ship has moved or turned since its shape was
+       *         last worked out
+       */
+      public boolean isShapeDirty() {
+          return shapeDirty;
+      }
+
+      /**
+       * Forces the shape to be worked out again the next time it is used.
+       */
+      public void invalidateShape() {
+          shapeDirty = true;
+      }
+
+      /**
+       * Rebuilds the corners, bounding box and shape if the ship has moved
+       * or turned. Rotating a point (px, py) by angle and moving it to
+       * (x, y) gives (x + px cos - py sin, y + px sin + py cos).
+       */
+      private void updateShape() {
+          if (!shapeDirty) {
+              return;
+          }
+          shapeDirty = false;
+          shape.reset();
+          if (destroyed) {
+              bounds.setRect(0, 0, 0, 0);
+              return;
+          }
+
+          double minX = Double.POSITIVE_INFINITY;
+          double minY = Double.POSITIVE_INFINITY;
+          double maxX = Double.NEGATIVE_INFINITY;
+          double maxY = Double.NEGATIVE_INFINITY;
+          for (int i = 0; i < VERTEX_COUNT; i++) {
+              double px = x + MODEL_X[i] * cos - MODEL_Y[i] * sin;
+              double py = y + MODEL_X[i] * sin + MODEL_Y[i] * cos;
+              vertexX[i] = px;
+              vertexY[i] = py;
+              minX = Math.min(minX, px);
+              minY = Math.min(minY, py);
+              maxX = Math.max(maxX, px);
+              maxY = Math.max(maxY, py);
+              if (i == 0) {
+                  shape.moveTo(px, py);
+              } else {
+                  shape.lineTo(px, py);
+              }
+          }
+          shape.closePath();
+          bounds.setRect(minX, minY, maxX - minX, maxY - minY);
+      }
+
+      /**
+       * Returns the direction the x
        * @return the the angle the x axis moves by
        */
       public double getXDirection(){
         //gives us the angle the ship will move in for the x direction
-          dirX = 10* Math.sin(angle);
-          return dirX;
+          return 10 * sin;
       }
-      
+
       /**
        * Returns the direction the y
        * @return the the angle the y axis moves by
        */
       public double getYDirection(){
         //gives us the angle the ship will move in for the y direction
-          dirX = 10* Math.sin(angle);
-          dirY = -10* Math.cos(angle);
-          return dirY;
+          return -10 * cos;
+      }
+
+      /**
+       * @return the x coordinate the ship turns around
+       */
+      public int getX() {
+          return x;
+      }
+
+      /**
+       * @return the y coordinate the ship turns around
+       */
+      public int getY() {
+          return y;
+      }
+
+      /**
+       * @return the angle of the ship in radians, clockwise from pointing up
+       */
+      public double getAngle() {
+          return angle;
       }
-      
+
+      /**
+       * @return true once the ship has been hit
+       */
+      public boolean isDestroyed() {
+          return destroyed;
+      }
+
+      /**
+       * Returns one corner of the ship's outline before it is moved and
+       * rotated
+       * @param i the corner, 0 to VERTEX_COUNT - 1
+       * @return the x coordinate of the corner
+       */
+      public static double getModelX(int i) {
+          return MODEL_X[i];
+      }
+
+      /**
+       * Returns one corner of the ship's outline before it is moved and
+       * rotated
+       * @param i the corner, 0 to VERTEX_COUNT - 1
+       * @return the y coordinate of the corner
+       */
+      public static double getModelY(int i) {
+          return MODEL_Y[i];
+      }
+
       /**
        * Called by game class when ship is hit by asteroid,
        * resets the ship object to disappear on screen
        */
       public void destroy() {
-          ship.reset();
+          destroyed = true;
+          shapeDirty = true;
       }
-      
+
 }
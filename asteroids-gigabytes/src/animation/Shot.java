@@ -4,7 +4,14 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Shape;
 import java.awt.geom.Ellipse2D;
+import java.awt.geom.Rectangle2D;
 
+/**
+ * A shot fired from the ship, moving in a straight line.
+ *
+ * Shots can be reused: reset fires an old shot again from a new place, so
+ * a ShotBuffer can fire the same few objects over and over.
+ */
 public class Shot implements AnimatedObject {
     // size of the shot
     private static final int SHOT_SIZE = 8;
@@ -12,37 +19,72 @@ public class Shot implements AnimatedObject {
     private int x;
     // where in y direction
     private int y;
+    // where it was before it last moved
+    private int previousX;
+    private int previousY;
     // how fast it is moving
     private int speed = 8;
     // where it is moving in x direction
     private double x_move;
     // where it is moving in y direction
     private double y_move;
-    // The animation that this object is part of
-    private AbstractAnimation animation;
+    // The playfield that this object moves in
+    private Playfield playfield;
     // The shot shape
-    private Ellipse2D shot;
+    private Ellipse2D shot = new Ellipse2D.Double();
+    // The shape drawn part way through a tick
+    private Ellipse2D drawn = new Ellipse2D.Double();
+    // The bounding box of the shape
+    private Rectangle2D.Double bounds = new Rectangle2D.Double();
     // true when shot is ended
     private boolean ended=false;
 
     /**
      * creates Shot
      * 
-     * @param animation  the animation this is part of
+     * @param playfield  the playfield this moves in
      * @param positionX  the position the shot originates in the x direction
      * @param positionY  the position the shot originates in the y direction
      * @param directionX the direction the shot is being fired in the x
      *                   direction
      * @param directionY the direction the shot is fired in the y direction
      */
-    public Shot(AbstractAnimation animation, int positionX, int positionY,
+    public Shot(Playfield playfield, int positionX, int positionY,
+            double directionX, double directionY) {
+        this(playfield);
+        reset(positionX, positionY, directionX, directionY);
+    }
+
+    /**
+     * creates a Shot that has not been fired yet, for a ShotBuffer to fire
+     * again and again
+     *
+     * @param playfield the playfield this moves in
+     */
+    public Shot(Playfield playfield) {
+        this.playfield = playfield;
+        ended = true;
+    }
+
+    /**
+     * fires the shot again from a new place, as if it had just been made
+     *
+     * @param positionX  the position the shot originates in the x direction
+     * @param positionY  the position the shot originates in the y direction
+     * @param directionX the direction the shot is being fired in the x
+     *                   direction
+     * @param directionY the direction the shot is fired in the y direction
+     */
+    public void reset(int positionX, int positionY,
             double directionX, double directionY) {
-        this.animation = animation;
         x = positionX;
         y = positionY;
+        previousX = x;
+        previousY = y;
         x_move = speed * directionX;
         y_move = speed * directionY;
-        shot = new Ellipse2D.Double(x, y, SHOT_SIZE, SHOT_SIZE);
+        ended = false;
+        shot.setFrame(x, y, SHOT_SIZE, SHOT_SIZE);
     }
 
     @Override
@@ -50,6 +92,8 @@ public class Shot implements AnimatedObject {
         if (ended) {
             shot.setFrame(0, 0, 0, 0);
         } else {
+            previousX = x;
+            previousY = y;
             x += x_move;
             y += y_move;
             shot.setFrame(x, y, SHOT_SIZE, SHOT_SIZE);
@@ -57,6 +101,20 @@ public class Shot implements AnimatedObject {
 
     }
 
+    /**
+     * @return the left edge of the shot before it last moved
+     */
+    public int getPreviousX() {
+        return previousX;
+    }
+
+    /**
+     * @return the top edge of the shot before it last moved
+     */
+    public int getPreviousY() {
+        return previousY;
+    }
+
     @Override
     public void paint(Graphics2D g) {
         g.setColor(Color.GREEN);
@@ -64,11 +122,38 @@ public class Shot implements AnimatedObject {
 
     }
 
+    @Override
+    public void paint(Graphics2D g, double alpha) {
+        if (ended) {
+            return;
+        }
+        g.setColor(Color.GREEN);
+        drawn.setFrame(previousX + (x - previousX) * alpha,
+                previousY + (y - previousY) * alpha, SHOT_SIZE, SHOT_SIZE);
+        g.fill(drawn);
+    }
+
+    @Override
+    public void savePreviousState() {
+        previousX = x;
+        previousY = y;
+    }
+
     @Override
     public Shape getShape() {
         return shot;
     }
 
+    /**
+     * @return the bounding box of the shot. The same object is returned
+     *         every time, so it must not be kept or changed.
+     */
+    @Override
+    public Rectangle2D getBounds2D() {
+        bounds.setRect(shot.getX(), shot.getY(), shot.getWidth(), shot.getHeight());
+        return bounds;
+    }
+
     /**
      * ends the shot
      * should be called when shot hits something
@@ -77,4 +162,11 @@ public class Shot implements AnimatedObject {
         ended=true;
     }
 
+    /**
+     * @return true once the shot has ended
+     */
+    public boolean isEnded() {
+        return ended;
+    }
+
 }
@@ -0,0 +1,210 @@
+package animation;
+
+/**
+ * The shots in flight, kept in a ring of fixed size in the order they were
+ * fired.
+ *
+ * A shot ends when it hits something, when it leaves the playfield or when
+ * it has been flying for its lifetime, whichever comes first. Firing when
+ * the ring is full first closes up the places of shots that have ended,
+ * and only ends the oldest shot to make room if every shot is still
+ * flying, so holding down fire never adds more than a fixed amount of work
+ * per tick. The shots are made
+ * once, up front, and fired again and again, so firing does not allocate.
+ */
+public class ShotBuffer {
+    // Default most shots in flight at once
+    public static final int DEFAULT_CAPACITY = 8;
+
+    // Default number of ticks a shot flies for
+    public static final int DEFAULT_LIFETIME = 30;
+
+    // The playfield the shots move in
+    private final Playfield playfield;
+
+    // The ring of shots, and the number of ticks each has been flying for
+    private final Shot[] shots;
+    private final int[] age;
+
+    // Ticks a shot flies for before it ends on its own
+    private final int lifetime;
+
+    // Index in shots of the oldest shot
+    private int head;
+
+    // Number of shots from head to the newest, including ended ones that
+    // newer shots are still flying behind
+    private int count;
+
+    // Number of shots that have not ended
+    private int liveCount;
+
+    /**
+     * Creates a buffer with the default capacity and lifetime.
+     *
+     * @param playfield the playfield the shots move in
+     */
+    public ShotBuffer(Playfield playfield) {
+        this(playfield, DEFAULT_CAPACITY, DEFAULT_LIFETIME);
+    }
+
+    /**
+     * Creates a buffer.
+     *
+     * @param playfield the playfield the shots move in
+     * @param capacity  the most shots in flight at once. Should be > 0.
+     * @param lifetime  the number of ticks a shot flies for. Should be > 0.
+     */
+    public ShotBuffer(Playfield playfield, int capacity, int lifetime) {
+        assert capacity > 0 && lifetime > 0;
+        this.playfield = playfield;
+        this.lifetime = lifetime;
+        shots = new Shot[capacity];
+        age = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            shots[i] = new Shot(playfield);
+        }
+    }
+
+    /**
+     * Fires a shot from the ship, ending the oldest shot first if every
+     * shot in the buffer is still flying.
+     *
+     * @param ship the ship firing the shot
+     * @return the new shot
+     */
+    public Shot fire(Ship ship) {
+        if (count == shots.length) {
+            if (liveCount == shots.length) {
+                end(0);
+                removeEnded();
+            } else {
+                compact();
+            }
+        }
+        int index = (head + count) % shots.length;
+        ship.space(shots[index]);
+        age[index] = 0;
+        count++;
+        liveCount++;
+        return shots[index];
+    }
+
+    /**
+     * Moves every shot in flight and ends the ones that have left the
+     * playfield or used up their lifetime.
+     */
+    public void update() {
+        int width = playfield.getWidth();
+        int height = playfield.getHeight();
+        for (int i = 0; i < count; i++) {
+            int index = (head + i) % shots.length;
+            Shot shot = shots[index];
+            if (shot.isEnded()) {
+                continue;
+            }
+            shot.nextFrame();
+            age[index]++;
+            double x = shot.getBounds2D().getX();
+            double y = shot.getBounds2D().getY();
+            if (age[index] >= lifetime || x < 0 || y < 0 || x > width || y > height) {
+                end(i);
+            }
+        }
+        removeEnded();
+    }
+
+    /**
+     * Returns a shot by its place in the buffer. The shot may have ended,
+     * in which case it should be skipped.
+     *
+     * @param i the place in the buffer, 0 for the oldest, up to size() - 1
+     * @return the shot
+     */
+    public Shot get(int i) {
+        return shots[(head + i) % shots.length];
+    }
+
+    /**
+     * Ends a shot, for example when it hits an asteroid.
+     *
+     * @param i the place in the buffer, 0 for the oldest, up to size() - 1
+     */
+    public void end(int i) {
+        Shot shot = get(i);
+        if (!shot.isEnded()) {
+            shot.end();
+            liveCount--;
+        }
+    }
+
+    /**
+     * Ends every shot.
+     */
+    public void clear() {
+        for (int i = 0; i < count; i++) {
+            end(i);
+        }
+        head = 0;
+        count = 0;
+    }
+
+    /**
+     * @return the number of places in use, from the oldest shot to the
+     *         newest. Some of them may have ended.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the number of shots in flight
+     */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    /**
+     * @return the most shots in flight at once
+     */
+    public int getCapacity() {
+        return shots.length;
+    }
+
+    /**
+     * Moves the shots still flying down over the places of ended ones,
+     * keeping them in the order they were fired, so the free places are
+     * all at the new end of the ring.
+     */
+    private void compact() {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int from = (head + i) % shots.length;
+            if (shots[from].isEnded()) {
+                continue;
+            }
+            int to = (head + kept) % shots.length;
+            if (to != from) {
+                // swap, so every shot object stays in the ring
+                Shot shot = shots[to];
+                shots[to] = shots[from];
+                shots[from] = shot;
+                int shotAge = age[to];
+                age[to] = age[from];
+                age[from] = shotAge;
+            }
+            kept++;
+        }
+        count = kept;
+    }
+
+    /**
+     * Drops ended shots from the old end of the ring.
+     */
+    private void removeEnded() {
+        while (count > 0 && shots[head].isEnded()) {
+            head = (head + 1) % shots.length;
+            count--;
+        }
+    }
+}
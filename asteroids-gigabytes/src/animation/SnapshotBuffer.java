@@ -0,0 +1,79 @@
+package animation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands WorldSnapshots from the thread that steps a world to the thread
+ * that paints it, without either ever waiting for the other.
+ *
+ * This is a triple buffer. The writer owns one snapshot and fills it, the
+ * reader owns another and paints from it, and the third is spare. To
+ * publish, the writer swaps its snapshot with the spare one. To get the
+ * latest, the reader swaps its snapshot with the spare one, but only if
+ * something new has been published since it last did. Each swap is a
+ * single atomic exchange, so the writer can publish as often as it likes
+ * and the reader always gets the newest whole snapshot, never one that is
+ * half written.
+ *
+ * There must be one writer thread and one reader thread at a time.
+ */
+public class SnapshotBuffer {
+    // Bit set in spare when it holds a snapshot the reader has not taken
+    private static final int FRESH = 4;
+
+    // Bits of spare that hold the index of the spare snapshot
+    private static final int INDEX = 3;
+
+    // the three snapshots
+    private final WorldSnapshot[] snapshots = {
+            new WorldSnapshot(), new WorldSnapshot(), new WorldSnapshot()};
+
+    // index of the snapshot being filled, only used by the writer
+    private int back = 0;
+
+    // index of the spare snapshot, plus FRESH if it has not been read
+    private final AtomicInteger spare = new AtomicInteger(1);
+
+    // index of the snapshot being painted, only used by the reader
+    private int front = 2;
+
+    /**
+     * @return the snapshot for the writer to fill before calling publish
+     */
+    public WorldSnapshot getBack() {
+        return snapshots[back];
+    }
+
+    /**
+     * Makes the snapshot just filled the latest one, and hands the writer
+     * another to fill next time.
+     */
+    public void publish() {
+        back = spare.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /**
+     * Fills the next snapshot from a world and publishes it.
+     *
+     * @param world  the world to copy
+     * @param camera the camera the world is seen through, or null
+     */
+    public void publish(AsteroidsWorld world, Camera camera) {
+        getBack().capture(world, camera);
+        publish();
+    }
+
+    /**
+     * Gets the newest published snapshot for the reader. It stays the
+     * reader's, unchanged, until the next call.
+     *
+     * @return the newest snapshot, or an empty one if none has been
+     *         published
+     */
+    public WorldSnapshot getLatest() {
+        if ((spare.get() & FRESH) != 0) {
+            front = spare.getAndSet(front) & INDEX;
+        }
+        return snapshots[front];
+    }
+}
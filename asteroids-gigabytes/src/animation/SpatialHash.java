@@ -0,0 +1,348 @@
+package animation;
+
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A uniform grid over the playfield used to find objects that might be
+ * touching, without comparing every object against every other one.
+ *
+ * Objects are inserted with their bounding box each frame (after calling
+ * clear). Queries return every inserted object whose bounding box overlaps
+ * the one asked about. The playfield wraps around at its edges, so a box
+ * hanging off the right edge also covers the cells on the left edge.
+ *
+ * Results are always given in insertion order, so callers that stop at the
+ * first hit behave the same as a plain loop over their list.
+ *
+ * @param <T> the kind of object stored in the grid
+ */
+public class SpatialHash<T extends AnimatedObject> {
+    // The width of the wrapped playfield, in pixels
+    private final double width;
+
+    // The height of the wrapped playfield, in pixels
+    private final double height;
+
+    // The width and height of one cell, in pixels
+    private final double cellSize;
+
+    // Number of cells across and down
+    private final int columns;
+    private final int rows;
+
+    // First record in each cell, -1 when the cell is empty
+    private final int[] cellHead;
+
+    // For each record, the entry it points at and the next record in its cell
+    private int[] recordEntry = new int[64];
+    private int[] recordNext = new int[64];
+    private int recordCount;
+
+    // The objects inserted since the last clear, with their wrapped bounds
+    private Object[] entries = new Object[16];
+    private double[] minX = new double[16];
+    private double[] minY = new double[16];
+    private double[] maxX = new double[16];
+    private double[] maxY = new double[16];
+    private int entryCount;
+
+    // Last query each entry was seen in, so an entry spanning several cells
+    // is only reported once
+    private int[] seen = new int[16];
+    private int queryStamp;
+
+    // Entries found by the current query, before sorting
+    private int[] found = new int[16];
+
+    /**
+     * Something that wants to hear about every overlapping pair in the grid.
+     *
+     * @param <T> the kind of object stored in the grid
+     */
+    public interface PairVisitor<T> {
+        /**
+         * Called once for each pair of overlapping objects.
+         *
+         * @param first  the object inserted first
+         * @param second the object inserted second
+         */
+        void visit(T first, T second);
+    }
+
+    /**
+     * Creates an empty grid.
+     *
+     * @param width    the width of the playfield, in pixels
+     * @param height   the height of the playfield, in pixels
+     * @param cellSize the size of a grid cell, in pixels. A good size is
+     *                 about as big as the largest object.
+     */
+    public SpatialHash(int width, int height, int cellSize) {
+        assert width > 0 && height > 0 && cellSize > 0;
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        columns = (width + cellSize - 1) / cellSize;
+        rows = (height + cellSize - 1) / cellSize;
+        cellHead = new int[columns * rows];
+        Arrays.fill(cellHead, -1);
+    }
+
+    /**
+     * Removes every object from the grid. The storage is kept so the next
+     * round of inserts does not allocate.
+     */
+    public void clear() {
+        Arrays.fill(cellHead, -1);
+        for (int i = 0; i < entryCount; i++) {
+            entries[i] = null;
+        }
+        recordCount = 0;
+        entryCount = 0;
+    }
+
+    /**
+     * Adds an object to the grid using the bounds of its current shape.
+     *
+     * @param object the object to add
+     */
+    public void insert(T object) {
+        Rectangle2D bounds = object.getShape().getBounds2D();
+        insert(object, bounds.getX(), bounds.getY(), bounds.getWidth(),
+                bounds.getHeight());
+    }
+
+    /**
+     * Adds an object to the grid with the given bounds. Objects with an
+     * empty box can never overlap anything, so they are left out.
+     *
+     * @param object the object to add
+     * @param x      the left edge of the object
+     * @param y      the top edge of the object
+     * @param w      the width of the object
+     * @param h      the height of the object
+     */
+    public void insert(T object, double x, double y, double w, double h) {
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        if (entryCount == entries.length) {
+            growEntries(entries.length * 2);
+        }
+        int entry = entryCount++;
+        double left = wrap(x, width);
+        double top = wrap(y, height);
+        entries[entry] = object;
+        minX[entry] = left;
+        minY[entry] = top;
+        maxX[entry] = left + w;
+        maxY[entry] = top + h;
+        seen[entry] = queryStamp;
+
+        int firstColumn = (int) (left / cellSize);
+        int columnCount = cellSpan(left, left + w, width, columns);
+        int firstRow = (int) (top / cellSize);
+        int rowCount = cellSpan(top, top + h, height, rows);
+        for (int r = 0; r < rowCount; r++) {
+            int row = (firstRow + r) % rows;
+            for (int c = 0; c < columnCount; c++) {
+                int column = (firstColumn + c) % columns;
+                addRecord(row * columns + column, entry);
+            }
+        }
+    }
+
+    /**
+     * Finds every object whose bounds overlap the given box.
+     *
+     * @param bounds the box to look in
+     * @param result the list the objects are added to, in insertion order
+     * @return the number of objects added to result
+     */
+    public int query(Rectangle2D bounds, List<T> result) {
+        return query(bounds.getX(), bounds.getY(), bounds.getWidth(),
+                bounds.getHeight(), result);
+    }
+
+    /**
+     * Finds every object whose bounds overlap the given box.
+     *
+     * @param x      the left edge of the box
+     * @param y      the top edge of the box
+     * @param w      the width of the box
+     * @param h      the height of the box
+     * @param result the list the objects are added to, in insertion order
+     * @return the number of objects added to result
+     */
+    @SuppressWarnings("unchecked")
+    public int query(double x, double y, double w, double h, List<T> result) {
+        int count = collect(x, y, w, h, -1);
+        for (int i = 0; i < count; i++) {
+            result.add((T) entries[found[i]]);
+        }
+        return count;
+    }
+
+    /**
+     * Calls the visitor once for every pair of objects whose bounds overlap.
+     * Pairs are visited in insertion order of their first object, then of
+     * their second.
+     *
+     * @param visitor what to call for each pair
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachPair(PairVisitor<? super T> visitor) {
+        for (int a = 0; a < entryCount; a++) {
+            int count = collect(minX[a], minY[a], maxX[a] - minX[a],
+                    maxY[a] - minY[a], a);
+            for (int i = 0; i < count; i++) {
+                visitor.visit((T) entries[a], (T) entries[found[i]]);
+            }
+        }
+    }
+
+    /**
+     * @return the number of objects in the grid
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Fills found with the entries overlapping a box, sorted by insertion
+     * order.
+     *
+     * @param after only entries inserted after this one are collected
+     * @return the number of entries found
+     */
+    private int collect(double x, double y, double w, double h, int after) {
+        if (w <= 0 || h <= 0 || entryCount == 0) {
+            return 0;
+        }
+        queryStamp++;
+        double left = wrap(x, width);
+        double top = wrap(y, height);
+        double right = left + w;
+        double bottom = top + h;
+
+        int count = 0;
+        int firstColumn = (int) (left / cellSize);
+        int columnCount = cellSpan(left, right, width, columns);
+        int firstRow = (int) (top / cellSize);
+        int rowCount = cellSpan(top, bottom, height, rows);
+        for (int r = 0; r < rowCount; r++) {
+            int row = (firstRow + r) % rows;
+            for (int c = 0; c < columnCount; c++) {
+                int column = (firstColumn + c) % columns;
+                for (int rec = cellHead[row * columns + column]; rec != -1;
+                        rec = recordNext[rec]) {
+                    int entry = recordEntry[rec];
+                    if (entry <= after || seen[entry] == queryStamp) {
+                        continue;
+                    }
+                    seen[entry] = queryStamp;
+                    if (overlaps(left, right, minX[entry], maxX[entry], width)
+                            && overlaps(top, bottom, minY[entry], maxY[entry],
+                                    height)) {
+                        found[count++] = entry;
+                    }
+                }
+            }
+        }
+        Arrays.sort(found, 0, count);
+        return count;
+    }
+
+    /**
+     * Links a new record for an entry into a cell.
+     */
+    private void addRecord(int cell, int entry) {
+        if (recordCount == recordEntry.length) {
+            recordEntry = Arrays.copyOf(recordEntry, recordCount * 2);
+            recordNext = Arrays.copyOf(recordNext, recordCount * 2);
+        }
+        recordEntry[recordCount] = entry;
+        recordNext[recordCount] = cellHead[cell];
+        cellHead[cell] = recordCount;
+        recordCount++;
+    }
+
+    /**
+     * Makes room for a number of objects up front, so inserting them does
+     * not allocate. Objects no bigger than a cell are in at most four
+     * cells, so room is made for four records each.
+     *
+     * @param objects the number of objects to make room for
+     */
+    public void ensureCapacity(int objects) {
+        if (objects > entries.length) {
+            growEntries(objects);
+        }
+        if (objects * 4 > recordEntry.length) {
+            recordEntry = Arrays.copyOf(recordEntry, objects * 4);
+            recordNext = Arrays.copyOf(recordNext, objects * 4);
+        }
+    }
+
+    /**
+     * Makes the room for entries larger.
+     *
+     * @param size the new number of entries, more than there is room for
+     */
+    private void growEntries(int size) {
+        entries = Arrays.copyOf(entries, size);
+        minX = Arrays.copyOf(minX, size);
+        minY = Arrays.copyOf(minY, size);
+        maxX = Arrays.copyOf(maxX, size);
+        maxY = Arrays.copyOf(maxY, size);
+        seen = Arrays.copyOf(seen, size);
+        found = new int[size];
+    }
+
+    /**
+     * Works out how many cells an interval touches along one axis, counting
+     * the cells it wraps onto past the far edge.
+     *
+     * @param start  the start of the interval, already wrapped into the field
+     * @param end    the end of the interval, may be past the far edge
+     * @param extent the length of the field along this axis
+     * @param cells  the number of cells along this axis
+     * @return the number of cells, at most cells
+     */
+    private int cellSpan(double start, double end, double extent, int cells) {
+        int first = (int) (start / cellSize);
+        int last;
+        if (end < extent) {
+            last = (int) (end / cellSize);
+        } else {
+            // the part past the edge continues from cell 0
+            last = cells + (int) ((end - extent) / cellSize);
+        }
+        return Math.min(last - first + 1, cells);
+    }
+
+    /**
+     * Checks whether two intervals on a wrapped axis overlap. Both starts
+     * must already be wrapped into the field.
+     */
+    private static boolean overlaps(double start1, double end1, double start2,
+            double end2, double extent) {
+        return (start1 < end2 && start2 < end1)
+                || (start1 < end2 - extent && start2 - extent < end1)
+                || (start1 < end2 + extent && start2 + extent < end1);
+    }
+
+    /**
+     * Moves a coordinate into the range [0, extent).
+     */
+    private static double wrap(double value, double extent) {
+        double wrapped = value % extent;
+        if (wrapped < 0) {
+            wrapped += extent;
+        }
+        // a tiny negative value can round up to extent itself
+        return wrapped < extent ? wrapped : 0;
+    }
+}
@@ -0,0 +1,338 @@
+package animation;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Draws asteroids and the ship by copying pictures of them that were drawn
+ * once ahead of time, instead of filling and stroking their shapes every
+ * frame.
+ *
+ * A picture is made the first time each asteroid width, height and colour,
+ * and each ship rotation, is drawn. The ship only turns in steps of PI/15,
+ * so it needs at most 30 pictures. Asteroids and the ship always sit on
+ * whole pixels, so copying a picture puts exactly the same pixels on screen
+ * as drawing the shape would.
+ *
+ * Pictures are kept until the total size of all of them passes a limit,
+ * after which the ones used least recently are thrown away first.
+ */
+public class SpriteCache {
+    // Default most bytes of pictures kept
+    public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+    // Angle between the ship's rotation steps
+    private static final double SHIP_STEP = Math.PI / 15;
+
+    // Number of different ship rotations
+    private static final int SHIP_ROTATIONS = 30;
+
+    // Bytes in one pixel of a picture
+    private static final int BYTES_PER_PIXEL = 4;
+
+    // Colours of asteroids that have and have not been destroyed
+    private static final Color DESTROYED_COLOR = Color.DARK_GRAY;
+    private static final Color ASTEROID_COLOR = Color.GRAY;
+
+    // The most bytes of pictures kept
+    private final long maxBytes;
+
+    // Pictures by key, with the least recently used first
+    private final LinkedHashMap<Long, Sprite> sprites = new LinkedHashMap<>(64, 0.75f, true);
+
+    // Bytes of pictures kept now
+    private long bytes;
+
+    // Number of draws that found their picture, made a new one and threw
+    // an old one away
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    // Used to draw shapes into new pictures
+    private final Ellipse2D.Double ellipse = new Ellipse2D.Double();
+    private final Path2D.Double path = new Path2D.Double();
+
+    /**
+     * A picture and where to put it relative to the object it shows.
+     */
+    private static class Sprite {
+        final BufferedImage image;
+        final int offsetX;
+        final int offsetY;
+
+        Sprite(BufferedImage image, int offsetX, int offsetY) {
+            this.image = image;
+            this.offsetX = offsetX;
+            this.offsetY = offsetY;
+        }
+    }
+
+    /**
+     * Creates a cache with the default size limit.
+     */
+    public SpriteCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxBytes the most bytes of pictures to keep
+     */
+    public SpriteCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Draws an asteroid the same way Asteroid.paint does.
+     *
+     * @param g     the graphics context to draw on
+     * @param field the field holding the asteroid
+     * @param slot  the slot of the asteroid
+     */
+    public void drawAsteroid(Graphics2D g, AsteroidField field, int slot) {
+        drawAsteroid(g, field, slot, 1);
+    }
+
+    /**
+     * Draws an asteroid part way through a tick, rounded to the nearest
+     * pixel.
+     *
+     * @param g     the graphics context to draw on
+     * @param field the field holding the asteroid
+     * @param slot  the slot of the asteroid
+     * @param alpha how far through the tick, from 0 to 1
+     */
+    public void drawAsteroid(Graphics2D g, AsteroidField field, int slot, double alpha) {
+        if (!field.isVisible(slot)) {
+            return;
+        }
+        // the ellipse is drawn height across and width down
+        drawAsteroid(g, field.getHeight(slot), field.getWidth(slot), field.isDestroyed(slot),
+                field.getInterpolatedX(slot, alpha), field.getInterpolatedY(slot, alpha));
+    }
+
+    /**
+     * Draws an asteroid of a given size at a given place, rounded to the
+     * nearest pixel.
+     *
+     * @param g         the graphics context to draw on
+     * @param across    the width of the ellipse as drawn
+     * @param down      the height of the ellipse as drawn
+     * @param destroyed true if the asteroid has been destroyed
+     * @param x         the left edge of the asteroid
+     * @param y         the top edge of the asteroid
+     */
+    public void drawAsteroid(Graphics2D g, int across, int down, boolean destroyed,
+            double x, double y) {
+        long key = ((long) across << 32) | ((long) down << 16) | (destroyed ? 2 : 0);
+        Sprite sprite = sprites.get(key);
+        if (sprite == null) {
+            sprite = makeAsteroid(across, down, destroyed ? DESTROYED_COLOR : ASTEROID_COLOR);
+            add(key, sprite);
+        } else {
+            hits++;
+        }
+        g.drawImage(sprite.image, (int) Math.round(x), (int) Math.round(y), null);
+    }
+
+    /**
+     * Draws the ship the same way Ship.paint does.
+     *
+     * @param g    the graphics context to draw on
+     * @param ship the ship
+     */
+    public void drawShip(Graphics2D g, Ship ship) {
+        drawShip(g, ship, 1);
+    }
+
+    /**
+     * Draws the ship part way through a tick, rounded to the nearest pixel
+     * and rotation step.
+     *
+     * @param g     the graphics context to draw on
+     * @param ship  the ship
+     * @param alpha how far through the tick, from 0 to 1
+     */
+    public void drawShip(Graphics2D g, Ship ship, double alpha) {
+        if (ship.isDestroyed()) {
+            return;
+        }
+        drawShip(g, ship.getInterpolatedX(alpha), ship.getInterpolatedY(alpha),
+                ship.getInterpolatedAngle(alpha));
+    }
+
+    /**
+     * Draws the ship at a given place and angle, rounded to the nearest
+     * pixel and rotation step.
+     *
+     * @param g     the graphics context to draw on
+     * @param x     the x coordinate the ship turns around
+     * @param y     the y coordinate the ship turns around
+     * @param angle the angle of the ship
+     */
+    public void drawShip(Graphics2D g, double x, double y, double angle) {
+        int rotation = Math.floorMod(Math.round(angle / SHIP_STEP), SHIP_ROTATIONS);
+        long key = ((long) rotation << 2) | 1;
+        Sprite sprite = sprites.get(key);
+        if (sprite == null) {
+            sprite = makeShip(rotation);
+            add(key, sprite);
+        } else {
+            hits++;
+        }
+        g.drawImage(sprite.image, (int) Math.round(x) + sprite.offsetX,
+                (int) Math.round(y) + sprite.offsetY, null);
+    }
+
+    /**
+     * Throws away every picture.
+     */
+    public void clear() {
+        sprites.clear();
+        bytes = 0;
+    }
+
+    /**
+     * @return the number of pictures kept
+     */
+    public int size() {
+        return sprites.size();
+    }
+
+    /**
+     * @return the number of bytes of pictures kept
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the number of draws that used a picture already made
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of draws that had to make a new picture
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of pictures thrown away to stay under the limit
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Keeps a new picture, throwing away the least recently used ones while
+     * the total is over the limit. The newest picture is always kept, even
+     * if it is over the limit on its own.
+     */
+    private void add(long key, Sprite sprite) {
+        misses++;
+        sprites.put(key, sprite);
+        bytes += sizeOf(sprite);
+        Iterator<Map.Entry<Long, Sprite>> eldest = sprites.entrySet().iterator();
+        while (bytes > maxBytes && sprites.size() > 1) {
+            Sprite removed = eldest.next().getValue();
+            eldest.remove();
+            bytes -= sizeOf(removed);
+            evictions++;
+        }
+    }
+
+    private static long sizeOf(Sprite sprite) {
+        return (long) sprite.image.getWidth() * sprite.image.getHeight() * BYTES_PER_PIXEL;
+    }
+
+    /**
+     * Draws an asteroid's ellipse into a new picture.
+     */
+    private Sprite makeAsteroid(int across, int down, Color color) {
+        BufferedImage image = newImage(across + 1, down + 1);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(color);
+            ellipse.setFrame(0, 0, across, down);
+            g.fill(ellipse);
+        } finally {
+            g.dispose();
+        }
+        return new Sprite(image, 0, 0);
+    }
+
+    /**
+     * Draws the ship's outline at one rotation into a new picture, with a
+     * pixel to spare on every side for the line around it.
+     */
+    private Sprite makeShip(int rotation) {
+        double sin = Math.sin(rotation * SHIP_STEP);
+        double cos = Math.cos(rotation * SHIP_STEP);
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double[] px = new double[Ship.VERTEX_COUNT];
+        double[] py = new double[Ship.VERTEX_COUNT];
+        for (int i = 0; i < Ship.VERTEX_COUNT; i++) {
+            px[i] = Ship.getModelX(i) * cos - Ship.getModelY(i) * sin;
+            py[i] = Ship.getModelX(i) * sin + Ship.getModelY(i) * cos;
+            minX = Math.min(minX, px[i]);
+            minY = Math.min(minY, py[i]);
+            maxX = Math.max(maxX, px[i]);
+            maxY = Math.max(maxY, py[i]);
+        }
+        int offsetX = (int) Math.floor(minX) - 1;
+        int offsetY = (int) Math.floor(minY) - 1;
+        int width = (int) Math.ceil(maxX) - offsetX + 2;
+        int height = (int) Math.ceil(maxY) - offsetY + 2;
+
+        path.reset();
+        for (int i = 0; i < Ship.VERTEX_COUNT; i++) {
+            if (i == 0) {
+                path.moveTo(px[i] - offsetX, py[i] - offsetY);
+            } else {
+                path.lineTo(px[i] - offsetX, py[i] - offsetY);
+            }
+        }
+        path.closePath();
+
+        BufferedImage image = newImage(width, height);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.draw(path);
+        } finally {
+            g.dispose();
+        }
+        return new Sprite(image, offsetX, offsetY);
+    }
+
+    /**
+     * Makes a transparent picture in the screen's own format when there is
+     * a screen, so copying it to the screen needs no conversion.
+     */
+    private static BufferedImage newImage(int width, int height) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return config.createCompatibleImage(width, height, Transparency.BITMASK);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+}
@@ -0,0 +1,439 @@
+package animation;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * Everything needed to draw one tick of a world: where the ship, the
+ * asteroids and the shots are and were, the score and the lives left.
+ *
+ * The animation thread fills a snapshot at the end of a tick and hands it
+ * to the painting thread through a SnapshotBuffer, so painting never looks
+ * at the world while it is being changed. A snapshot is a copy, kept in
+ * plain arrays that are reused from one capture to the next, so capturing
+ * does not allocate once the arrays are big enough.
+ *
+ * Only what can be drawn is captured. Asteroids that have blinked out and
+ * shots that have ended are left out, and with a Camera so is anything off
+ * screen. For things on camera, the snapshot also keeps how far to move
+ * them from their place in the world to their place on screen.
+ */
+public final class WorldSnapshot {
+    // Starting room for asteroids and shots
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Colours, as the objects themselves draw them
+    private static final Color SHIP_COLOR = Color.WHITE;
+    private static final Color ASTEROID_COLOR = Color.GRAY;
+    private static final Color DESTROYED_COLOR = Color.DARK_GRAY;
+    private static final Color SHOT_COLOR = Color.GREEN;
+
+    // the tick of the world when the snapshot was taken
+    private long tick;
+
+    // when the next tick started being owed, from System.nanoTime, or 0
+    // if not known
+    private long tickStartNanos;
+
+    // score and lives to show
+    private int score;
+    private int lives;
+
+    // true once the game is over
+    private boolean gameOver;
+
+    // number of asteroids in the field, including ones not captured
+    private int asteroidTotal;
+
+    // true if the ship is drawn at all
+    private boolean shipShown;
+
+    // where the ship turns around and its angle, now and at the start of
+    // the tick
+    private double shipX;
+    private double shipY;
+    private double shipAngle;
+    private double shipPreviousX;
+    private double shipPreviousY;
+    private double shipPreviousAngle;
+
+    // bounding box of the ship now
+    private final Rectangle2D.Double shipBounds = new Rectangle2D.Double();
+
+    // how far the ship is moved to put it on screen
+    private long shipShiftX;
+    private long shipShiftY;
+
+    // the captured asteroids: left and top edges now and at the start of
+    // the tick, size as drawn (height across and width down), whether
+    // destroyed, and how far to move each one onto the screen
+    private int asteroidCount;
+    private double[] asteroidX = new double[DEFAULT_CAPACITY];
+    private double[] asteroidY = new double[DEFAULT_CAPACITY];
+    private double[] asteroidPreviousX = new double[DEFAULT_CAPACITY];
+    private double[] asteroidPreviousY = new double[DEFAULT_CAPACITY];
+    private int[] asteroidAcross = new int[DEFAULT_CAPACITY];
+    private int[] asteroidDown = new int[DEFAULT_CAPACITY];
+    private boolean[] asteroidDestroyed = new boolean[DEFAULT_CAPACITY];
+    private long[] asteroidShiftX = new long[DEFAULT_CAPACITY];
+    private long[] asteroidShiftY = new long[DEFAULT_CAPACITY];
+
+    // the captured shots, in the same way
+    private int shotCount;
+    private double[] shotX = new double[ShotBuffer.DEFAULT_CAPACITY];
+    private double[] shotY = new double[ShotBuffer.DEFAULT_CAPACITY];
+    private double[] shotPreviousX = new double[ShotBuffer.DEFAULT_CAPACITY];
+    private double[] shotPreviousY = new double[ShotBuffer.DEFAULT_CAPACITY];
+    private double[] shotSize = new double[ShotBuffer.DEFAULT_CAPACITY];
+    private long[] shotShiftX = new long[ShotBuffer.DEFAULT_CAPACITY];
+    private long[] shotShiftY = new long[ShotBuffer.DEFAULT_CAPACITY];
+
+    // shapes reused for drawing, and the bounding box handed out by the
+    // getters
+    private final Ellipse2D.Double ellipse = new Ellipse2D.Double();
+    private final Path2D.Double outline = new Path2D.Double(Path2D.WIND_EVEN_ODD, Ship.VERTEX_COUNT + 1);
+    private final Rectangle2D.Double bounds = new Rectangle2D.Double();
+
+    /**
+     * Copies what is needed to draw a world. Only the thread that steps
+     * the world may call this.
+     *
+     * @param world  the world to copy
+     * @param camera the camera the world is seen through, or null if the
+     *               whole world is on screen
+     */
+    public void capture(AsteroidsWorld world, Camera camera) {
+        tick = world.getTick();
+        score = world.getScore();
+        lives = world.getLives();
+        gameOver = world.isGameOver();
+
+        Ship ship = world.getShip();
+        Rectangle2D box = ship.getBounds2D();
+        shipShown = !ship.isDestroyed() && isOnCamera(camera, box);
+        shipX = ship.getX();
+        shipY = ship.getY();
+        shipAngle = ship.getAngle();
+        shipPreviousX = ship.getInterpolatedX(0);
+        shipPreviousY = ship.getInterpolatedY(0);
+        shipPreviousAngle = ship.getInterpolatedAngle(0);
+        shipBounds.setRect(box);
+        shipShiftX = shiftX(camera, box);
+        shipShiftY = shiftY(camera, box);
+
+        AsteroidField asteroids = world.getAsteroids();
+        asteroidTotal = asteroids.size();
+        asteroidCount = 0;
+        // with level of detail on, only asteroids near the ship can be on
+        // screen
+        boolean nearOnly = camera != null && asteroids.isLevelOfDetail();
+        int count = nearOnly ? asteroids.getNearCount() : asteroids.getSlotLimit();
+        for (int i = 0; i < count; i++) {
+            int slot = nearOnly ? asteroids.getNearSlot(i) : i;
+            if (!asteroids.isUsed(slot) || !asteroids.isVisible(slot)) {
+                continue;
+            }
+            // the ellipse is drawn height across and width down
+            double x = asteroids.getX(slot);
+            double y = asteroids.getY(slot);
+            int across = asteroids.getHeight(slot);
+            int down = asteroids.getWidth(slot);
+            bounds.setRect(x, y, across, down);
+            if (!isOnCamera(camera, bounds)) {
+                continue;
+            }
+            if (asteroidCount == asteroidX.length) {
+                growAsteroids();
+            }
+            int a = asteroidCount++;
+            asteroidX[a] = x;
+            asteroidY[a] = y;
+            asteroidPreviousX[a] = asteroids.getInterpolatedX(slot, 0);
+            asteroidPreviousY[a] = asteroids.getInterpolatedY(slot, 0);
+            asteroidAcross[a] = across;
+            asteroidDown[a] = down;
+            asteroidDestroyed[a] = asteroids.isDestroyed(slot);
+            asteroidShiftX[a] = shiftX(camera, bounds);
+            asteroidShiftY[a] = shiftY(camera, bounds);
+        }
+
+        ShotBuffer shots = world.getShots();
+        shotCount = 0;
+        for (int i = 0; i < shots.size(); i++) {
+            Shot shot = shots.get(i);
+            box = shot.getBounds2D();
+            if (shot.isEnded() || !isOnCamera(camera, box)) {
+                continue;
+            }
+            if (shotCount == shotX.length) {
+                growShots();
+            }
+            int s = shotCount++;
+            shotX[s] = box.getX();
+            shotY[s] = box.getY();
+            shotPreviousX[s] = shot.getPreviousX();
+            shotPreviousY[s] = shot.getPreviousY();
+            shotSize[s] = box.getWidth();
+            shotShiftX[s] = shiftX(camera, box);
+            shotShiftY[s] = shiftY(camera, box);
+        }
+    }
+
+    /**
+     * Draws the ship part way through the tick, the same way Ship.paint
+     * does.
+     *
+     * @param g       the graphics context to draw on
+     * @param alpha   how far through the tick, from 0 to 1
+     * @param sprites pictures to copy, or null to draw the outline
+     */
+    public void paintShip(Graphics2D g, double alpha, SpriteCache sprites) {
+        if (!shipShown) {
+            return;
+        }
+        double x = shipPreviousX + (shipX - shipPreviousX) * alpha;
+        double y = shipPreviousY + (shipY - shipPreviousY) * alpha;
+        double angle = shipPreviousAngle + (shipAngle - shipPreviousAngle) * alpha;
+        g.translate(shipShiftX, shipShiftY);
+        if (sprites != null) {
+            sprites.drawShip(g, x, y, angle);
+        } else {
+            double sin = Math.sin(angle);
+            double cos = Math.cos(angle);
+            outline.reset();
+            for (int i = 0; i < Ship.VERTEX_COUNT; i++) {
+                double px = x + Ship.getModelX(i) * cos - Ship.getModelY(i) * sin;
+                double py = y + Ship.getModelX(i) * sin + Ship.getModelY(i) * cos;
+                if (i == 0) {
+                    outline.moveTo(px, py);
+                } else {
+                    outline.lineTo(px, py);
+                }
+            }
+            outline.closePath();
+            g.setColor(SHIP_COLOR);
+            g.draw(outline);
+        }
+        g.translate(-shipShiftX, -shipShiftY);
+    }
+
+    /**
+     * Draws one asteroid part way through the tick, the same way
+     * Asteroid.paint does.
+     *
+     * @param g       the graphics context to draw on
+     * @param i       which asteroid, 0 to getAsteroidCount() - 1
+     * @param alpha   how far through the tick, from 0 to 1
+     * @param sprites pictures to copy, or null to fill the ellipse
+     */
+    public void paintAsteroid(Graphics2D g, int i, double alpha, SpriteCache sprites) {
+        double x = asteroidPreviousX[i] + (asteroidX[i] - asteroidPreviousX[i]) * alpha;
+        double y = asteroidPreviousY[i] + (asteroidY[i] - asteroidPreviousY[i]) * alpha;
+        g.translate(asteroidShiftX[i], asteroidShiftY[i]);
+        if (sprites != null) {
+            sprites.drawAsteroid(g, asteroidAcross[i], asteroidDown[i], asteroidDestroyed[i], x, y);
+        } else {
+            g.setColor(asteroidDestroyed[i] ? DESTROYED_COLOR : ASTEROID_COLOR);
+            ellipse.setFrame(x, y, asteroidAcross[i], asteroidDown[i]);
+            g.fill(ellipse);
+        }
+        g.translate(-asteroidShiftX[i], -asteroidShiftY[i]);
+    }
+
+    /**
+     * Draws one shot part way through the tick, the same way Shot.paint
+     * does.
+     *
+     * @param g     the graphics context to draw on
+     * @param i     which shot, 0 to getShotCount() - 1
+     * @param alpha how far through the tick, from 0 to 1
+     */
+    public void paintShot(Graphics2D g, int i, double alpha) {
+        g.translate(shotShiftX[i], shotShiftY[i]);
+        g.setColor(SHOT_COLOR);
+        ellipse.setFrame(shotPreviousX[i] + (shotX[i] - shotPreviousX[i]) * alpha,
+                shotPreviousY[i] + (shotY[i] - shotPreviousY[i]) * alpha,
+                shotSize[i], shotSize[i]);
+        g.fill(ellipse);
+        g.translate(-shotShiftX[i], -shotShiftY[i]);
+    }
+
+    /**
+     * @return the tick of the world when the snapshot was taken
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Keeps when the next tick started being owed, so a snapshot drawn
+     * later, on another thread, can work out how far through that tick it
+     * is drawn.
+     *
+     * @param tickStartNanos the animation's getTickStartNanos
+     */
+    public void setTickStartNanos(long tickStartNanos) {
+        this.tickStartNanos = tickStartNanos;
+    }
+
+    /**
+     * @return when the next tick started being owed, from System.nanoTime,
+     *         or 0 if it was never set
+     */
+    public long getTickStartNanos() {
+        return tickStartNanos;
+    }
+
+    /**
+     * @return the score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the lives left
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * @return true if the game was over
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * @return the number of asteroids in the field, including the ones
+     *         that were not captured
+     */
+    public int getAsteroidTotal() {
+        return asteroidTotal;
+    }
+
+    /**
+     * @return true if the ship is drawn
+     */
+    public boolean isShipShown() {
+        return shipShown;
+    }
+
+    /**
+     * Returns the bounding box of the ship at the end of the tick. The same
+     * object is returned every time, so it must not be kept or changed.
+     *
+     * @return the bounding box, in world coordinates
+     */
+    public Rectangle2D getShipBounds() {
+        return shipBounds;
+    }
+
+    /**
+     * @return the number of asteroids captured
+     */
+    public int getAsteroidCount() {
+        return asteroidCount;
+    }
+
+    /**
+     * Returns the bounding box of an asteroid at the end of the tick. The
+     * same object is returned by every call for an asteroid or a shot, so
+     * it must not be kept or changed.
+     *
+     * @param i which asteroid, 0 to getAsteroidCount() - 1
+     * @return the bounding box, in world coordinates
+     */
+    public Rectangle2D getAsteroidBounds(int i) {
+        bounds.setRect(asteroidX[i], asteroidY[i], asteroidAcross[i], asteroidDown[i]);
+        return bounds;
+    }
+
+    /**
+     * @return the number of shots captured
+     */
+    public int getShotCount() {
+        return shotCount;
+    }
+
+    /**
+     * Returns the bounding box of a shot at the end of the tick. The same
+     * object is returned by every call for an asteroid or a shot, so it
+     * must not be kept or changed.
+     *
+     * @param i which shot, 0 to getShotCount() - 1
+     * @return the bounding box, in world coordinates
+     */
+    public Rectangle2D getShotBounds(int i) {
+        bounds.setRect(shotX[i], shotY[i], shotSize[i], shotSize[i]);
+        return bounds;
+    }
+
+    /**
+     * @return true if a box has something in it and can be seen
+     */
+    private static boolean isOnCamera(Camera camera, Rectangle2D box) {
+        if (box.isEmpty()) {
+            return false;
+        }
+        return camera == null
+                || camera.isVisible(box.getX(), box.getY(), box.getWidth(), box.getHeight());
+    }
+
+    /**
+     * @return how far across to move something to draw it on screen, in
+     *         whole pixels
+     */
+    private static long shiftX(Camera camera, Rectangle2D box) {
+        if (camera == null) {
+            return 0;
+        }
+        return Math.round(camera.shiftX(box.getX(), box.getWidth()) - box.getX());
+    }
+
+    /**
+     * @return how far down to move something to draw it on screen, in
+     *         whole pixels
+     */
+    private static long shiftY(Camera camera, Rectangle2D box) {
+        if (camera == null) {
+            return 0;
+        }
+        return Math.round(camera.shiftY(box.getY(), box.getHeight()) - box.getY());
+    }
+
+    /**
+     * Doubles the room for asteroids.
+     */
+    private void growAsteroids() {
+        int size = asteroidX.length * 2;
+        asteroidX = Arrays.copyOf(asteroidX, size);
+        asteroidY = Arrays.copyOf(asteroidY, size);
+        asteroidPreviousX = Arrays.copyOf(asteroidPreviousX, size);
+        asteroidPreviousY = Arrays.copyOf(asteroidPreviousY, size);
+        asteroidAcross = Arrays.copyOf(asteroidAcross, size);
+        asteroidDown = Arrays.copyOf(asteroidDown, size);
+        asteroidDestroyed = Arrays.copyOf(asteroidDestroyed, size);
+        asteroidShiftX = Arrays.copyOf(asteroidShiftX, size);
+        asteroidShiftY = Arrays.copyOf(asteroidShiftY, size);
+    }
+
+    /**
+     * Doubles the room for shots.
+     */
+    private void growShots() {
+        int size = shotX.length * 2;
+        shotX = Arrays.copyOf(shotX, size);
+        shotY = Arrays.copyOf(shotY, size);
+        shotPreviousX = Arrays.copyOf(shotPreviousX, size);
+        shotPreviousY = Arrays.copyOf(shotPreviousY, size);
+        shotSize = Arrays.copyOf(shotSize, size);
+        shotShiftX = Arrays.copyOf(shotShiftX, size);
+        shotShiftY = Arrays.copyOf(shotShiftY, size);
+    }
+}
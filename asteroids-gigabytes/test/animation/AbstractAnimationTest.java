@@ -0,0 +1,301 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.Test;
+
+class AbstractAnimationTest {
+
+    private AnimationStub animation = new AnimationStub();
+
+    @Test
+    void testRepaintedFramesAreTimed() {
+        BufferedImage image = new BufferedImage(900, 900, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        animation.paint(g);
+        animation.paint(g);
+        g.dispose();
+        assertEquals(2, animation.getFrameTimes().getCount());
+        assertEquals(1, animation.getFrameIntervals().getCount());
+    }
+
+    @Test
+    void testActiveRenderingFallsBackWithoutScreen() {
+        // The canvas is never shown, so frames are still painted by Swing
+        animation.setActiveRendering(true);
+        assertTrue(animation.isActiveRendering());
+        BufferedImage image = new BufferedImage(900, 900, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        animation.paint(g);
+        g.dispose();
+        assertEquals(1, animation.getFrameTimes().getCount());
+
+        animation.setActiveRendering(false);
+        assertFalse(animation.isActiveRendering());
+        assertEquals(0, animation.getComponentCount());
+    }
+
+    @Test
+    void testLifecycle() throws InterruptedException {
+        // a long tick, so a stop that waited out the sleep would be slow
+        AbstractAnimation slow = new AnimationStub(5_000);
+        assertEquals(AbstractAnimation.State.NEW, slow.getAnimationState());
+        slow.start();
+        assertEquals(AbstractAnimation.State.RUNNING, slow.getAnimationState());
+        waitForTicks(slow, 1);
+
+        slow.pause();
+        assertEquals(AbstractAnimation.State.PAUSED, slow.getAnimationState());
+        slow.resume();
+        assertEquals(AbstractAnimation.State.RUNNING, slow.getAnimationState());
+
+        long start = System.nanoTime();
+        slow.stop();
+        assertTrue(System.nanoTime() - start < 2_000_000_000L);
+        assertEquals(AbstractAnimation.State.STOPPED, slow.getAnimationState());
+
+        // starting again runs a fresh thread, and stopping while paused
+        // wakes it up
+        long ticks = slow.getTickCount();
+        slow.start();
+        waitForTicks(slow, ticks + 1);
+        slow.pause();
+        slow.stop();
+        assertEquals(AbstractAnimation.State.STOPPED, slow.getAnimationState());
+    }
+
+    @Test
+    void testPauseFromTickStopsCatchingUp() throws InterruptedException {
+        // the first tick leaves a backlog of ten ticks, and the second
+        // pauses the animation, as a game does when it is over
+        AbstractAnimation pausing = new AnimationStub(10) {
+            private int ticks;
+
+            @Override
+            protected void nextFrame() {
+                ticks++;
+                if (ticks == 1) {
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                } else if (ticks == 2) {
+                    pause();
+                }
+            }
+        };
+        pausing.start();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (pausing.getAnimationState() != AbstractAnimation.State.PAUSED
+                && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Thread.sleep(50);
+        pausing.stop();
+        assertEquals(2, pausing.getTickCount());
+        assertEquals(0, pausing.getDroppedTicks());
+    }
+
+    @Test
+    void testRunsBetweenTicks() throws InterruptedException {
+        AbstractAnimation fast = new AnimationStub(1);
+        int[] runs = new int[1];
+        // not running, so it happens straight away
+        assertTrue(fast.runBetweenTicks(() -> runs[0] = 1));
+        assertEquals(1, runs[0]);
+
+        // code given together all runs, in order
+        fast.start();
+        boolean now = fast.runBetweenTicks(() -> runs[0] = runs[0] * 10 + 2);
+        assertFalse(now);
+        assertFalse(fast.runBetweenTicks(() -> runs[0] = runs[0] * 10 + 3));
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (fast.getTickCount() < 10 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        fast.stop();
+        assertEquals(123, runs[0]);
+
+        // code still waiting for a tick boundary when the animation is
+        // stopped is run by stop, and not again on the next start
+        AbstractAnimation slow = new AnimationStub(5_000);
+        slow.start();
+        waitForTicks(slow, 1);
+        assertFalse(slow.runBetweenTicks(() -> runs[0]++));
+        slow.stop();
+        assertEquals(124, runs[0]);
+        slow.start();
+        waitForTicks(slow, 2);
+        slow.stop();
+        assertEquals(124, runs[0]);
+    }
+
+    @Test
+    void testPipelinedFallsBackWithoutScreen() throws InterruptedException {
+        AbstractAnimation fast = new AnimationStub(1);
+        fast.setActiveRendering(true);
+        fast.setPipelinedRendering(1, FrameQueue.Policy.BLOCK);
+        assertTrue(fast.isPipelinedRendering());
+        fast.start();
+        waitForTicks(fast, 20);
+        fast.stop();
+
+        // The canvas is never shown, so nothing is queued and nothing
+        // waits for the render thread
+        FrameQueue<?> queue = fast.getFrameQueue();
+        assertNotNull(queue);
+        assertEquals(0, queue.getPublishedCount());
+        assertEquals(AbstractAnimation.State.STOPPED, fast.getAnimationState());
+
+        fast.setPipelinedRendering(false);
+        assertFalse(fast.isPipelinedRendering());
+    }
+
+    @Test
+    void testOverrunsAndCatchUpLimit() throws InterruptedException {
+        CountingStub stalled = new CountingStub(10);
+        stalled.setMaxCatchUpTicks(3);
+        // repaint after every pass of the loop, so a run of ticks between
+        // two repaints is the ticks run back to back in one pass
+        stalled.setRenderRate(1000);
+        stalled.start();
+        waitForTicks(stalled, 5);
+        assertEquals(0, stalled.getOverrunCount());
+
+        // one tick takes twenty ticks' worth of time
+        stalled.stallMillis = 200;
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (stalled.getDroppedTicks() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        waitForTicks(stalled, stalled.getTickCount() + 5);
+        stalled.stop();
+
+        assertTrue(stalled.getOverrunCount() >= 1);
+        assertTrue(stalled.getMaxTickNanos() >= 200 * 1_000_000L);
+        // only three of the twenty ticks owed are run, the rest are dropped
+        assertEquals(3, stalled.maxBurst);
+        assertTrue(stalled.getDroppedTicks() >= 10);
+    }
+
+    @Test
+    void testRenderRateIsSeparateFromTickRate() throws InterruptedException {
+        // 100 ticks a second drawn 20 times a second
+        CountingStub slowFrames = new CountingStub(10);
+        slowFrames.setRenderRate(20);
+        slowFrames.start();
+        waitForTicks(slowFrames, 60);
+        slowFrames.stop();
+        assertTrue(slowFrames.repaints >= 3);
+        assertTrue(slowFrames.repaints <= slowFrames.getTickCount() / 3);
+
+        // 20 ticks a second drawn 200 times a second
+        CountingStub fastFrames = new CountingStub(50);
+        fastFrames.setRenderRate(200);
+        fastFrames.start();
+        waitForTicks(fastFrames, 10);
+        fastFrames.stop();
+        assertTrue(fastFrames.repaints >= fastFrames.getTickCount() * 3);
+    }
+
+    /**
+     * Waits up to five seconds for an animation to have run some ticks.
+     */
+    private static void waitForTicks(AbstractAnimation animation, long ticks)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (animation.getTickCount() < ticks && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(animation.getTickCount() >= ticks);
+    }
+
+    @Test
+    void testBothModesOnScreen() throws Exception {
+        // Needs a display, such as Xvfb
+        assumeFalse(GraphicsEnvironment.isHeadless());
+        for (int mode = 0; mode < 3; mode++) {
+            boolean active = mode > 0;
+            AnimationStub shown = new AnimationStub();
+            shown.setPipelinedRendering(mode == 2);
+            JFrame[] frame = new JFrame[1];
+            SwingUtilities.invokeAndWait(() -> {
+                shown.setActiveRendering(active);
+                frame[0] = new JFrame();
+                frame[0].setSize(300, 300);
+                frame[0].getContentPane().add(shown);
+                frame[0].setVisible(true);
+            });
+            shown.start();
+            Thread.sleep(1000);
+            shown.stop();
+            SwingUtilities.invokeAndWait(() -> frame[0].dispose());
+
+            assertTrue(shown.getFrameTimes().getCount() > 0);
+            // frames keep coming, and no faster than the render rate
+            // allows, give or take the odd extra paint from Swing
+            FrameTimeHistogram intervals = shown.getFrameIntervals();
+            assertTrue(intervals.getCount() > 0);
+            assertTrue(intervals.getMean() >= shown.getTickNanos() / 2);
+
+            // pipelined frames went through the queue to the render thread
+            if (mode == 2) {
+                FrameQueue<?> queue = shown.getFrameQueue();
+                assertTrue(queue.getPublishedCount() > 0);
+                assertTrue(queue.getRenderLag().getCount() > 0);
+                assertTrue(queue.getRenderLag().getMax() > 0);
+            }
+        }
+    }
+
+    /**
+     * An animation that counts its ticks and repaints, and can be made to
+     * take a long time over one tick.
+     */
+    private static class CountingStub extends AnimationStub {
+        // ticks run since the last repaint, only used by the animation thread
+        private int burst;
+
+        // most ticks run between two repaints
+        private volatile int maxBurst;
+
+        // number of repaints asked for
+        private volatile int repaints;
+
+        // how long the next tick takes, in milliseconds, or 0
+        private volatile int stallMillis;
+
+        CountingStub(int pauseTime) {
+            super(pauseTime);
+        }
+
+        @Override
+        protected void nextFrame() {
+            burst++;
+            int stall = stallMillis;
+            if (stall > 0) {
+                stallMillis = 0;
+                try {
+                    Thread.sleep(stall);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        protected void repaintFrame() {
+            repaints++;
+            maxBurst = Math.max(maxBurst, burst);
+            burst = 0;
+        }
+    }
+}
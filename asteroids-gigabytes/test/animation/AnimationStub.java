@@ -0,0 +1,23 @@
+package animation;
+
+public class AnimationStub extends AbstractAnimation {
+
+    public AnimationStub() {
+    }
+
+    public AnimationStub(int pauseTime) {
+        super(pauseTime);
+    }
+
+    public int getWidth() {
+        return 900;
+    }
+
+    public int getHeight() {
+        return 900;
+    }
+
+    protected void nextFrame() {
+    }
+
+}
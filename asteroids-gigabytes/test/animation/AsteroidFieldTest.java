@@ -0,0 +1,205 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class AsteroidFieldTest {
+
+    private AsteroidField field = new AsteroidField(new AnimationStub(), 2, new Random(42));
+
+    @Test
+    void testSpawnAndRelease() {
+        int first = field.spawn();
+        int second = field.spawn();
+        int third = field.spawn();
+        assertEquals(3, field.size());
+        assertEquals(3, field.getSlotLimit());
+
+        // A released slot is handed out again before the field grows
+        field.release(second);
+        assertEquals(2, field.size());
+        assertFalse(field.isUsed(second));
+        assertEquals(second, field.spawn());
+        assertTrue(field.isUsed(first));
+        assertTrue(field.isUsed(third));
+
+        field.clear();
+        assertEquals(0, field.size());
+        assertEquals(0, field.getSlotLimit());
+    }
+
+    @Test
+    void testUpdateMovesAndWraps() {
+        int slot = field.spawn(1, 100, 100);
+        double x = field.getX(slot);
+        double y = field.getY(slot);
+        field.update(1);
+        assertNotEquals(x, field.getX(slot));
+        assertNotEquals(y, field.getY(slot));
+
+        // Past the right edge, so it wraps to the left edge before moving
+        slot = field.spawn(1, 899, 100);
+        field.update(slot, 1);
+        assertTrue(field.getX(slot) <= 3);
+    }
+
+    @Test
+    void testInterpolatesBetweenTicks() {
+        int slot = field.spawn(1, 100, 100);
+        double x = field.getX(slot);
+        double y = field.getY(slot);
+        assertEquals(x, field.getInterpolatedX(slot, 0.5), 0);
+        field.update(slot, 1);
+        assertEquals(x, field.getInterpolatedX(slot, 0), 0);
+        assertEquals((x + field.getX(slot)) / 2, field.getInterpolatedX(slot, 0.5), 1e-12);
+        assertEquals((y + field.getY(slot)) / 2, field.getInterpolatedY(slot, 0.5), 1e-12);
+        assertEquals(field.getX(slot), field.getInterpolatedX(slot, 1), 0);
+
+        // Wrapping jumps to the other side rather than sweeping across
+        slot = field.spawn(1, 899, 100);
+        field.update(slot, 1);
+        double left = Math.min(field.getX(slot), field.getInterpolatedX(slot, 0));
+        assertTrue(field.getInterpolatedX(slot, 0.5) - left <= 3);
+    }
+
+    @Test
+    void testDestroyBlinksAndSplits() {
+        Asteroid big = new Asteroid(field, 2, 100, 100);
+        List<Asteroid> pieces = big.destroy();
+        assertTrue(big.isDestroyed());
+        assertEquals(2, pieces.size());
+        assertEquals(3, field.size());
+
+        // Destroyed asteroids stay still, blink twice and then disappear
+        double x = field.getX(big.getSlot());
+        for (int i = 0; i < 5; i++) {
+            big.nextFrame();
+            assertTrue(field.isVisible(big.getSlot()));
+        }
+        big.nextFrame();
+        assertFalse(field.isVisible(big.getSlot()));
+        assertEquals(0, big.getShape().getBounds2D().getWidth(), 0);
+        for (int i = 0; i < 10; i++) {
+            big.nextFrame();
+        }
+        assertFalse(field.isVisible(big.getSlot()));
+        assertEquals(x, field.getX(big.getSlot()), 0);
+    }
+
+    @Test
+    void testFinishedAsteroidsAreRetired() {
+        int first = field.spawn(1, 100, 100);
+        int second = field.spawn(1, 200, 200);
+        field.destroy(first);
+        field.destroy(first);
+        assertEquals(1, field.getLiveCount());
+        assertEquals(2, field.size());
+
+        // Still blinking, so it stays in the field
+        for (int i = 0; i < 15; i++) {
+            field.update(1);
+        }
+        assertEquals(0, field.retireFinished());
+        assertTrue(field.isUsed(first));
+
+        field.update(1);
+        assertEquals(1, field.retireFinished());
+        assertFalse(field.isUsed(first));
+        assertEquals(1, field.size());
+        assertEquals(1, field.getLiveCount());
+
+        // Releasing a live or a blinking asteroid keeps the counts right
+        int third = field.spawn();
+        field.destroy(third);
+        field.release(third);
+        field.release(second);
+        assertEquals(0, field.size());
+        assertEquals(0, field.getLiveCount());
+        for (int i = 0; i < 20; i++) {
+            field.update(1);
+        }
+        assertEquals(0, field.retireFinished());
+    }
+
+    @Test
+    void testHandleIsShared() {
+        Asteroid asteroid = new Asteroid(field);
+        assertSame(asteroid, field.get(asteroid.getSlot()));
+    }
+
+    @Test
+    void testParallelUpdateMatchesSerial() {
+        AnimationStub playfield = new AnimationStub();
+        AsteroidField serial = new AsteroidField(playfield, 16, new Random(9));
+        AsteroidField parallel = new AsteroidField(playfield, 16, new Random(9));
+        for (int i = 0; i < 5000; i++) {
+            serial.spawn();
+            parallel.spawn();
+        }
+        serial.destroy(17);
+        parallel.destroy(17);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            parallel.setParallelUpdate(pool, 1);
+            for (int tick = 0; tick < 200; tick++) {
+                serial.update(1);
+                parallel.update(1);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int slot = 0; slot < serial.getSlotLimit(); slot++) {
+            assertEquals(serial.getX(slot), parallel.getX(slot), 0);
+            assertEquals(serial.getY(slot), parallel.getY(slot), 0);
+            assertEquals(serial.isVisible(slot), parallel.isVisible(slot));
+        }
+    }
+
+    @Test
+    void testLevelOfDetailCatchesUp() {
+        // a playfield big enough that nothing reaches an edge
+        Playfield big = new Playfield() {
+            public int getWidth() {
+                return 100_000;
+            }
+
+            public int getHeight() {
+                return 100_000;
+            }
+        };
+        AsteroidField full = new AsteroidField(big, 16, new Random(5));
+        AsteroidField detailed = new AsteroidField(big, 16, new Random(5));
+        Random places = new Random(6);
+        for (int i = 0; i < 2000; i++) {
+            int x = 1000 + places.nextInt(98_000);
+            int y = 1000 + places.nextInt(98_000);
+            full.spawn(1, x, y);
+            detailed.spawn(1, x, y);
+        }
+        detailed.setLevelOfDetail(8, 1000);
+
+        for (int tick = 0; tick < 100; tick++) {
+            full.update(1);
+            detailed.updateAround(50_000, 50_000);
+        }
+        // only the asteroids around the focus are moved every tick
+        assertTrue(detailed.getNearCount() < 100);
+        for (int i = 0; i < detailed.getNearCount(); i++) {
+            int slot = detailed.getNearSlot(i);
+            assertEquals(full.getX(slot), detailed.getX(slot), 0);
+        }
+
+        detailed.catchUp();
+        for (int slot = 0; slot < full.getSlotLimit(); slot++) {
+            assertEquals(full.getX(slot), detailed.getX(slot), 0);
+            assertEquals(full.getY(slot), detailed.getY(slot), 0);
+        }
+    }
+
+}
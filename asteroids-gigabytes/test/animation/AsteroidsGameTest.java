@@ -0,0 +1,37 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class AsteroidsGameTest {
+
+    @Test
+    void testQueuedFrameIsDrawnAtItsOwnTick() throws InterruptedException {
+        // long ticks, so the next tick has only just run when the frame is
+        // painted
+        AsteroidsGame game = new AsteroidsGame(new AsteroidsWorld(900, 900, 7), 200);
+        game.setInterpolation(true);
+        WorldSnapshot frame = (WorldSnapshot) game.createFrame();
+        game.start();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (game.getTickCount() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        // capture a frame between ticks, as the animation thread does
+        // before handing it to the render thread, then let another tick run
+        assertFalse(game.runBetweenTicks(() -> game.captureFrame(frame)));
+        long ticks = game.getTickCount();
+        while (game.getTickCount() < ticks + 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(game.getTickCount() >= ticks + 1);
+
+        // the tick the frame shows is over, so it is drawn at its end and
+        // not part way through the tick now running
+        int[] painted = WorldFixtures.draw(g -> game.paintFrame(g, frame));
+        game.stop();
+        game.setInterpolation(false);
+        assertArrayEquals(WorldFixtures.draw(g -> game.paintFrame(g, frame)), painted);
+    }
+}
@@ -0,0 +1,123 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.awt.event.KeyEvent;
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+class AsteroidsWorldTest {
+
+    // bytes the measured ticks may allocate while the JVM loads classes for
+    // newly compiled code
+    private static final long JIT_ALLOWANCE = 1024;
+
+    private AsteroidsWorld world = new AsteroidsWorld();
+
+    @Test
+    void testStepsWithoutWindow() {
+        assertEquals(5, world.getAsteroids().size());
+        for (int i = 0; i < 10_000 && !world.isGameOver(); i++) {
+            world.step();
+            assertTrue(world.getLives() >= 0 && world.getLives() <= 3);
+        }
+    }
+
+    @Test
+    void testCommands() {
+        Ship ship = world.getShip();
+        double x = ship.getVertexX(1);
+        world.apply(Command.ROTATE_RIGHT);
+        assertNotEquals(x, ship.getVertexX(1));
+
+        assertFalse(world.isShooting());
+        world.apply(Command.FIRE);
+        assertTrue(world.isShooting());
+        assertEquals(1, world.getShots().getLiveCount());
+    }
+
+    @Test
+    void testHeldKeysRepeatEveryTick() {
+        Ship ship = world.getShip();
+        double angle = ship.getAngle();
+        double turn = Math.PI / 15;
+
+        // turns once when pressed and once more on every tick after
+        world.keyPressed(KeyEvent.VK_RIGHT);
+        assertTrue(world.isHeld(Command.ROTATE_RIGHT));
+        assertEquals(angle + turn, ship.getAngle(), 1e-9);
+        world.step();
+        assertEquals(angle + turn, ship.getAngle(), 1e-9);
+        world.keyPressed(KeyEvent.VK_RIGHT);
+        world.step();
+        world.step();
+        assertEquals(angle + 3 * turn, ship.getAngle(), 1e-9);
+
+        world.keyReleased(KeyEvent.VK_RIGHT);
+        assertFalse(world.isHeld(Command.ROTATE_RIGHT));
+        world.step();
+        assertEquals(angle + 3 * turn, ship.getAngle(), 1e-9);
+
+        // pressed and let go before a tick still turns once
+        world.keyPressed(KeyEvent.VK_LEFT);
+        world.keyReleased(KeyEvent.VK_LEFT);
+        world.step();
+        assertEquals(angle + 2 * turn, ship.getAngle(), 1e-9);
+    }
+
+    @Test
+    void testRestart() {
+        for (int i = 0; i < 500; i++) {
+            world.step();
+        }
+        world.restart();
+        assertEquals(0, world.getScore());
+        assertEquals(3, world.getLives());
+        assertEquals(5, world.getAsteroids().size());
+        assertFalse(world.isGameOver());
+
+        world.setStartingLives(5);
+        assertEquals(5, world.getLives());
+        world.restart();
+        assertEquals(5, world.getLives());
+    }
+
+    @Test
+    void testSteadyStateStepDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // play long enough for everything the world keeps to reach its
+        // working size, firing all the time so asteroids split
+        AsteroidsWorld world = new AsteroidsWorld(900, 900, 7);
+        world.setStartingLives(Integer.MAX_VALUE);
+        WorldFixtures.playTicks(world, 20_000);
+
+        // each level brings more asteroids than the last, so make room for
+        // far more than the measured ticks can reach
+        world.reserveAsteroids(1024);
+
+        // measuring costs nothing by itself
+        long overhead = threads.getCurrentThreadAllocatedBytes();
+        overhead = threads.getCurrentThreadAllocatedBytes() - overhead;
+
+        // The JVM now and then loads a class on this thread while it swaps
+        // in newly compiled code, a few hundred bytes at most. The whole run
+        // may hold that much once, but even 8 bytes a tick would go over it
+        // in every window.
+        long total = 0;
+        for (int window = 0; window < 20; window++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            WorldFixtures.playTicks(world, 250);
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before - overhead;
+            assertTrue(allocated < JIT_ALLOWANCE, "window " + window + " allocated " + allocated + " bytes");
+            total += allocated;
+        }
+        assertTrue(total < JIT_ALLOWANCE, "allocated " + total + " bytes");
+    }
+
+}
@@ -0,0 +1,34 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class CameraTest {
+
+    private AsteroidsWorld world = new AsteroidsWorld(10_000, 10_000, 1);
+
+    private Camera camera = new Camera(world, 900, 900);
+
+    @Test
+    void testFollowsShip() {
+        camera.follow(world.getShip());
+        // the ship starts at 450, 450, so the view starts at the top left
+        assertEquals(0, camera.getLeft(), 0);
+        assertEquals(0, camera.getTop(), 0);
+        assertEquals(450, camera.shiftX(450, 20), 0);
+        assertTrue(camera.isVisible(800, 800, 50, 50));
+        assertFalse(camera.isVisible(2000, 800, 50, 50));
+    }
+
+    @Test
+    void testSeesAcrossTheSeam() {
+        camera.follow(world.getShip());
+        // something near the right and bottom edges of the world is just
+        // off the left and top of the screen, or hanging onto it
+        assertEquals(-100, camera.shiftX(9_900, 50), 0);
+        assertFalse(camera.isVisible(9_900, 100, 50, 50));
+        assertEquals(-30, camera.shiftY(9_970, 50), 0);
+        assertTrue(camera.isVisible(100, 9_970, 50, 50));
+    }
+
+}
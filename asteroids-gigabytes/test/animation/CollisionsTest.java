@@ -0,0 +1,135 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.geom.Area;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CollisionsTest {
+
+    @Test
+    void testCornersOfBoundingBoxesDoNotCollide() {
+        // ellipse centred on (100, 100), 60 wide and 40 high. The triangle
+        // pokes into the corner of its bounding box but misses the ellipse.
+        assertFalse(Collisions.ellipseIntersectsTriangle(100, 100, 30, 20,
+                72, 82, 60, 60, 80, 60));
+        assertTrue(Collisions.ellipseIntersectsTriangle(100, 100, 30, 20,
+                80, 90, 60, 60, 80, 60));
+
+        // a small circle in the same corner
+        assertFalse(Collisions.ellipseIntersectsCircle(100, 100, 30, 20, 74, 83, 3));
+        assertTrue(Collisions.ellipseIntersectsCircle(100, 100, 30, 20, 76, 88, 3));
+    }
+
+    @Test
+    void testOneInsideTheOther() {
+        // triangle wholly inside the ellipse
+        assertTrue(Collisions.ellipseIntersectsTriangle(0, 0, 30, 20,
+                -2, -2, 2, -2, 0, 2));
+        // ellipse wholly inside the triangle
+        assertTrue(Collisions.ellipseIntersectsTriangle(0, 0, 3, 2,
+                -100, 100, 100, 100, 0, -100));
+        // circle wholly inside the ellipse
+        assertTrue(Collisions.ellipseIntersectsCircle(0, 0, 30, 20, 5, 5, 1));
+    }
+
+    @Test
+    void testNearestPointOfEllipse() {
+        // straight out along each axis the answer is easy
+        assertEquals(100, Collisions.ellipseDistanceSquared(30, 20, 40, 0), 1e-6);
+        assertEquals(100, Collisions.ellipseDistanceSquared(30, 20, 0, 30), 1e-6);
+        // a circle is a special ellipse
+        double d = Math.sqrt(Collisions.ellipseDistanceSquared(10, 10, 30, 40));
+        assertEquals(40, d, 1e-6);
+    }
+
+    @Test
+    void testSweepFindsFirstTouch() {
+        // along the x axis into an ellipse 20 wide, starting 30 away
+        assertEquals(0.5, Collisions.sweepPointEllipse(-30, 0, 10, 0, 10, 5), 1e-12);
+        // passing straight through in one step still hits
+        assertEquals(0.25, Collisions.sweepPointEllipse(-20, 0, 20, 0, 10, 5), 1e-12);
+        // missing above, stopping short, and moving away
+        assertEquals(Collisions.NO_HIT, Collisions.sweepPointEllipse(-20, 6, 20, 6, 10, 5));
+        assertEquals(Collisions.NO_HIT, Collisions.sweepPointEllipse(-30, 0, -15, 0, 10, 5));
+        assertEquals(Collisions.NO_HIT, Collisions.sweepPointEllipse(-15, 0, -30, 0, 10, 5));
+        // already inside
+        assertEquals(0, Collisions.sweepPointEllipse(1, 1, 30, 30, 10, 5));
+    }
+
+    @Test
+    void testFastShotDoesNotTunnel() {
+        Playfield playfield = new AnimationStub();
+        AsteroidField field = new AsteroidField(playfield, 4, new Random(1));
+        Asteroid near = field.get(field.spawn(1, 400, 100));
+        Asteroid far = field.get(field.spawn(1, 440, 100));
+        double centreY = near.getBounds2D().getCenterY();
+
+        // 80 pixels a tick, from well short of the small asteroids to
+        // beyond both of them
+        Shot shot = new Shot(playfield, 300, (int) centreY - 4, 10, 0);
+        shot.nextFrame();
+        assertEquals(Collisions.NO_HIT, AsteroidsWorld.timeOfImpact(shot, near));
+        shot.nextFrame();
+        assertFalse(shot.getBounds2D().intersects(near.getBounds2D()));
+
+        double nearTime = AsteroidsWorld.timeOfImpact(shot, near);
+        double farTime = AsteroidsWorld.timeOfImpact(shot, far);
+        assertTrue(nearTime > 0 && nearTime < 1);
+        assertTrue(farTime > nearTime && farTime < 1);
+
+        // nothing left to hit once it is destroyed
+        near.destroy();
+        assertEquals(Collisions.NO_HIT, AsteroidsWorld.timeOfImpact(shot, near));
+    }
+
+    @Test
+    void testAgreesWithArea() {
+        Random random = new Random(11);
+        for (int i = 0; i < 2000; i++) {
+            double cx = 100;
+            double cy = 100;
+            double a = 5 + random.nextInt(40);
+            double b = 5 + random.nextInt(40);
+            double[] corners = new double[6];
+            for (int k = 0; k < 6; k++) {
+                corners[k] = 40 + random.nextDouble() * 120;
+            }
+            boolean exact = Collisions.ellipseIntersectsTriangle(cx, cy, a, b,
+                    corners[0], corners[1], corners[2], corners[3], corners[4], corners[5]);
+
+            Path2D.Double triangle = new Path2D.Double();
+            triangle.moveTo(corners[0], corners[1]);
+            triangle.lineTo(corners[2], corners[3]);
+            triangle.lineTo(corners[4], corners[5]);
+            triangle.closePath();
+            Area area = new Area(new Ellipse2D.Double(cx - a, cy - b, 2 * a, 2 * b));
+            area.intersect(new Area(triangle));
+
+            if (exact == area.isEmpty()) {
+                // only allowed when they barely touch, where Area's curves
+                // are not quite the ellipse
+                boolean bigger = Collisions.ellipseIntersectsTriangle(cx, cy, a + 0.5, b + 0.5,
+                        corners[0], corners[1], corners[2], corners[3], corners[4], corners[5]);
+                boolean smaller = Collisions.ellipseIntersectsTriangle(cx, cy, a - 0.5, b - 0.5,
+                        corners[0], corners[1], corners[2], corners[3], corners[4], corners[5]);
+                assertNotEquals(bigger, smaller, "case " + i);
+            }
+
+            double px = random.nextDouble() * 200;
+            double py = random.nextDouble() * 200;
+            double r = 1 + random.nextInt(10);
+            exact = Collisions.ellipseIntersectsCircle(cx, cy, a, b, px, py, r);
+            area = new Area(new Ellipse2D.Double(cx - a, cy - b, 2 * a, 2 * b));
+            area.intersect(new Area(new Ellipse2D.Double(px - r, py - r, 2 * r, 2 * r)));
+            if (exact == area.isEmpty()) {
+                boolean bigger = Collisions.ellipseIntersectsCircle(cx, cy, a, b, px, py, r + 0.5);
+                boolean smaller = Collisions.ellipseIntersectsCircle(cx, cy, a, b, px, py, r - 0.5);
+                assertNotEquals(bigger, smaller, "circle case " + i);
+            }
+        }
+    }
+}
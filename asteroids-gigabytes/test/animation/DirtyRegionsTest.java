@@ -0,0 +1,62 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Rectangle;
+
+import org.junit.jupiter.api.Test;
+
+class DirtyRegionsTest {
+
+    private DirtyRegions regions = new DirtyRegions();
+
+    @Test
+    void testMovingObjectDirtiesOldAndNewBounds() {
+        regions.update(0, 100, 100, 20, 20);
+        assertEquals(1, regions.size());
+        regions.clear();
+
+        // standing still dirties nothing
+        regions.update(0, 100, 100, 20, 20);
+        assertEquals(0, regions.size());
+
+        regions.update(0, 300, 400, 20, 20);
+        assertEquals(2, regions.size());
+        assertTrue(regions.get(0).contains(100, 100, 20, 20));
+        assertTrue(regions.get(1).contains(300, 400, 20, 20));
+        assertFalse(regions.get(0).intersects(regions.get(1)));
+    }
+
+    @Test
+    void testRemovedObjectsDirtyWhereTheyWere() {
+        regions.update(0, 10, 10, 5, 5);
+        regions.update(1, 50, 50, 5, 5);
+        regions.update(2, 90, 90, 5, 5);
+        regions.clear();
+
+        regions.removeFrom(1);
+        assertEquals(2, regions.size());
+        assertTrue(regions.get(0).contains(50, 50, 5, 5));
+        assertTrue(regions.get(1).contains(90, 90, 5, 5));
+    }
+
+    @Test
+    void testManyRegionsAreMerged() {
+        for (int i = 0; i < 200; i++) {
+            regions.update(i, i * 4, i * 4, 3, 3);
+        }
+        assertEquals(1, regions.size());
+        Rectangle all = regions.get(0);
+        assertTrue(all.contains(0, 0, 3, 3));
+        assertTrue(all.contains(199 * 4, 199 * 4, 3, 3));
+    }
+
+    @Test
+    void testAddAll() {
+        regions.update(0, 10, 10, 5, 5);
+        regions.addAll(900, 900);
+        regions.update(1, 950, 950, 5, 5);
+        assertEquals(1, regions.size());
+        assertTrue(regions.get(0).contains(0, 0, 955, 955));
+    }
+
+}
@@ -0,0 +1,70 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+class FrameMetricsTest {
+
+    private FrameMetrics metrics = new FrameMetrics();
+
+    @Test
+    void testWorldTimesEachPhase() {
+        AsteroidsWorld world = new AsteroidsWorld(900, 900, 3);
+        world.setMetrics(metrics);
+        for (int i = 0; i < 100; i++) {
+            world.step();
+        }
+        assertEquals(100, metrics.get(FrameMetrics.Phase.RESPAWN).getCount());
+        assertEquals(100, metrics.get(FrameMetrics.Phase.UPDATE).getCount());
+        assertEquals(100, metrics.get(FrameMetrics.Phase.INDEX).getCount());
+        assertEquals(100, metrics.get(FrameMetrics.Phase.COLLISION).getCount());
+        assertEquals(0, metrics.get(FrameMetrics.Phase.PAINT).getCount());
+
+        world.setMetrics(null);
+        world.step();
+        assertEquals(100, metrics.get(FrameMetrics.Phase.UPDATE).getCount());
+    }
+
+    @Test
+    void testCsvHasOneLinePerPhase() throws IOException {
+        metrics.record(FrameMetrics.Phase.PAINT, 2_000);
+        metrics.record(FrameMetrics.Phase.PAINT, 4_000);
+        StringBuilder out = new StringBuilder();
+        FrameMetrics.writeCsvHeader(out);
+        metrics.writeCsv(out, 1234);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(FrameMetrics.Phase.values().length + 1, lines.length);
+        assertEquals("time,phase,count,mean_ns,p50_ns,p99_ns,max_ns", lines[0]);
+        String paint = lines[1 + FrameMetrics.Phase.PAINT.ordinal()];
+        assertTrue(paint.startsWith("1234,PAINT,2,3000,"), paint);
+        assertTrue(paint.endsWith(",4000"), paint);
+    }
+
+    @Test
+    void testShownOverJmx() throws JMException {
+        metrics.record(FrameMetrics.Phase.TICK, 5_000);
+        metrics.register("test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("animation:type=FrameMetrics,name=\"test\"");
+            assertTrue(server.isRegistered(name));
+            assertNotNull(server.getAttribute(name, "MaxNanos"));
+
+            Map<String, Long> max = metrics.getMaxNanos();
+            assertEquals(5_000, (long) max.get("TICK"));
+            server.invoke(name, "reset", null, null);
+            assertEquals(0, metrics.get(FrameMetrics.Phase.TICK).getCount());
+        } finally {
+            metrics.unregister();
+        }
+    }
+}
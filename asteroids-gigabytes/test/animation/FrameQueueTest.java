@@ -0,0 +1,80 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class FrameQueueTest {
+
+    @Test
+    void testDropKeepsTheNewest() throws InterruptedException {
+        FrameQueue<int[]> queue = new FrameQueue<>(2, FrameQueue.Policy.DROP, () -> new int[1]);
+        assertEquals(2, queue.getCapacity());
+        for (int i = 1; i <= 5; i++) {
+            queue.claim()[0] = i;
+            queue.publish();
+        }
+        assertEquals(3, queue.getDroppedCount());
+        assertEquals(5, queue.getPublishedCount());
+        assertEquals(2, queue.getDepth());
+        assertEquals(2, queue.getDepths().getMax());
+
+        assertEquals(4, queue.take()[0]);
+        assertEquals(5, queue.take()[0]);
+        assertEquals(0, queue.getDepth());
+        assertEquals(2, queue.getRenderLag().getCount());
+    }
+
+    @Test
+    void testBlockWaitsForTheReader() throws InterruptedException {
+        FrameQueue<int[]> queue = new FrameQueue<>(1, FrameQueue.Policy.BLOCK, () -> new int[1]);
+        queue.claim()[0] = 1;
+        queue.publish();
+        Thread writer = new Thread(() -> {
+            queue.claim()[0] = 2;
+            try {
+                queue.publish();
+            } catch (InterruptedException e) {
+                // the test failed to take a frame
+            }
+        });
+        writer.start();
+        Thread.sleep(100);
+        assertTrue(writer.isAlive());
+
+        assertEquals(1, queue.take()[0]);
+        writer.join(5000);
+        assertFalse(writer.isAlive());
+        assertEquals(2, queue.take()[0]);
+        assertEquals(0, queue.getDroppedCount());
+        assertTrue(queue.getBlockedNanos() > 0);
+    }
+
+    @Test
+    void testFramesArriveWholeAndInOrder() throws InterruptedException {
+        FrameQueue<long[]> queue = new FrameQueue<>(3, FrameQueue.Policy.BLOCK, () -> new long[8]);
+        Thread writer = new Thread(() -> {
+            try {
+                for (long i = 1; i <= 20_000; i++) {
+                    long[] frame = queue.claim();
+                    for (int j = 0; j < frame.length; j++) {
+                        frame[j] = i;
+                    }
+                    queue.publish();
+                }
+            } catch (InterruptedException e) {
+                // stopped early, which the count below catches
+            }
+        });
+        writer.start();
+
+        for (long i = 1; i <= 20_000; i++) {
+            long[] frame = queue.take();
+            for (long value : frame) {
+                assertEquals(i, value);
+            }
+        }
+        writer.join();
+        assertEquals(0, queue.getDroppedCount());
+        assertTrue(queue.getDepths().getMax() <= 3);
+    }
+}
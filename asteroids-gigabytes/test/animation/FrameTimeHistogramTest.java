@@ -0,0 +1,60 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class FrameTimeHistogramTest {
+
+    private FrameTimeHistogram histogram = new FrameTimeHistogram();
+
+    @Test
+    void testBucketsCoverEveryValue() {
+        // Every value lands in a bucket whose top is at least the value and
+        // no more than an eighth above it
+        long[] values = {0, 1, 7, 8, 9, 15, 16, 17, 1000, 16_666_667, 1L << 40, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = FrameTimeHistogram.bucketOf(value);
+            long top = FrameTimeHistogram.highestValueIn(bucket);
+            assertTrue(top >= value);
+            assertTrue(top - value <= value / 8);
+            assertTrue(bucket == 0 || FrameTimeHistogram.highestValueIn(bucket - 1) < value);
+        }
+    }
+
+    @Test
+    void testPercentiles() {
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(100_000_000L, histogram.getMax());
+        assertEquals(50_500_000L, histogram.getMean());
+
+        long median = histogram.getValueAtPercentile(50);
+        assertTrue(median >= 50_000_000L && median <= 50_000_000L * 9 / 8);
+        assertEquals(100_000_000L, histogram.getValueAtPercentile(100));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    void testRecordingFromManyThreads() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(9_999, histogram.getMax());
+    }
+
+}
@@ -0,0 +1,65 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.Test;
+
+class GameEventsTest {
+
+    @Test
+    void testOnlyRecordedWhenEnabled() {
+        assertFalse(GameEvents.ASTEROID_SPLIT.isEnabled());
+        try (Recording recording = new Recording()) {
+            recording.enable("animation.AsteroidSplit");
+            recording.start();
+            assertTrue(GameEvents.ASTEROID_SPLIT.isEnabled());
+        }
+        assertFalse(GameEvents.ASTEROID_SPLIT.isEnabled());
+    }
+
+    @Test
+    void testSplitsAndLevelsAreRecorded() throws IOException {
+        Path file = Files.createTempFile("asteroids", ".jfr");
+        try {
+            AsteroidsWorld world = new AsteroidsWorld(900, 900, 7);
+            world.setStartingLives(Integer.MAX_VALUE);
+            try (Recording recording = new Recording()) {
+                recording.enable("animation.AsteroidSplit");
+                recording.enable("animation.LevelChange");
+                recording.start();
+                WorldFixtures.playTicks(world, 10_000);
+                recording.stop();
+                recording.dump(file);
+            }
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            int splits = 0;
+            int levels = 0;
+            for (RecordedEvent event : events) {
+                String name = event.getEventType().getName();
+                if (name.equals("animation.AsteroidSplit")) {
+                    splits++;
+                    int size = event.getInt("size");
+                    int spawnCount = event.getInt("spawnCount");
+                    assertTrue(size >= 1 && size <= 3);
+                    assertEquals(size == 1 ? 0 : 2, spawnCount);
+                } else if (name.equals("animation.LevelChange")) {
+                    levels++;
+                    assertTrue(event.getInt("asteroidCount") > 5);
+                }
+            }
+            assertTrue(splits > 0);
+            assertTrue(levels > 0);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.event.KeyEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+class InputLogTest {
+
+    @Test
+    void testSameSeedSameGame() {
+        AsteroidsWorld first = new AsteroidsWorld(900, 900, 7);
+        AsteroidsWorld second = new AsteroidsWorld(900, 900, 7);
+        for (int i = 0; i < 300; i++) {
+            if (i % 40 == 0) {
+                first.keyPressed(KeyEvent.VK_SHIFT);
+                second.keyPressed(KeyEvent.VK_SHIFT);
+            }
+            first.step();
+            second.step();
+        }
+        assertEquals(describe(first), describe(second));
+    }
+
+    @Test
+    void testReplayMatchesRecording() throws IOException {
+        AsteroidsWorld world = new AsteroidsWorld(900, 900, 1234);
+        InputLog log = world.startRecording();
+        int[] keys = {KeyEvent.VK_LEFT, KeyEvent.VK_UP, KeyEvent.VK_SPACE,
+                KeyEvent.VK_RIGHT, KeyEvent.VK_SHIFT, KeyEvent.VK_SPACE};
+        for (int i = 0; i < 2000; i++) {
+            if (i % 7 == 0) {
+                world.keyPressed(keys[(i / 7) % keys.length]);
+            }
+            if (i % 7 == 3) {
+                world.keyReleased(keys[(i / 7) % keys.length]);
+            }
+            if (i == 1000) {
+                world.setSize(800, 700);
+            }
+            if (i == 1500) {
+                world.restart();
+            }
+            world.step();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        log.writeTo(out);
+        InputLog loaded = InputLog.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(log.size(), loaded.size());
+
+        AsteroidsWorld replayed = loaded.replay(2000);
+        assertEquals(describe(world), describe(replayed));
+    }
+
+    @Test
+    void testReplaysVersionOneLogs() throws IOException {
+        // a log saved before releases were recorded: space on tick 3 and
+        // the right arrow on tick 10
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(0x41535452);
+        data.writeByte(1);
+        data.writeLong(99);
+        data.write(new byte[] {(byte) 0x84, 0x07, (byte) 0x84, 0x07, 2,
+                3, KeyEvent.VK_SPACE, 7, KeyEvent.VK_RIGHT});
+        InputLog loaded = InputLog.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(2, loaded.size());
+
+        // back then each press happened once
+        AsteroidsWorld world = new AsteroidsWorld(900, 900, 99);
+        for (int i = 0; i < 50; i++) {
+            if (i == 3) {
+                world.apply(Command.FIRE);
+            }
+            if (i == 10) {
+                world.apply(Command.ROTATE_RIGHT);
+            }
+            world.step();
+        }
+        assertEquals(describe(world), describe(loaded.replay(50)));
+    }
+
+    @Test
+    void testRejectsOtherData() {
+        byte[] junk = {1, 2, 3, 4, 5, 6, 7, 8};
+        assertThrows(IOException.class,
+                () -> InputLog.readFrom(new ByteArrayInputStream(junk)));
+    }
+
+    /**
+     * Sums up everything about a world that should match between runs
+     */
+    private static String describe(AsteroidsWorld world) {
+        StringBuilder s = new StringBuilder();
+        s.append(world.getTick()).append(' ').append(world.getScore())
+                .append(' ').append(world.getLives()).append(' ')
+                .append(world.getWidth()).append('x').append(world.getHeight());
+        for (int i = 0; i < Ship.VERTEX_COUNT; i++) {
+            s.append(' ').append(world.getShip().getVertexX(i))
+                    .append(',').append(world.getShip().getVertexY(i));
+        }
+        AsteroidField asteroids = world.getAsteroids();
+        for (int slot = 0; slot < asteroids.getSlotLimit(); slot++) {
+            if (asteroids.isUsed(slot)) {
+                s.append(" [").append(asteroids.getX(slot)).append(',')
+                        .append(asteroids.getY(slot)).append(',')
+                        .append(asteroids.isDestroyed(slot)).append(']');
+            }
+        }
+        return s.toString();
+    }
+
+}
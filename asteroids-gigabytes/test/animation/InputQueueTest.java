@@ -0,0 +1,70 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.event.KeyEvent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+class InputQueueTest {
+
+    @Test
+    void testDrainsInOrder() {
+        InputQueue queue = new InputQueue(3);
+        assertEquals(4, queue.getCapacity());
+        AsteroidsWorld world = new AsteroidsWorld(900, 900, 7);
+        InputLog log = world.startRecording();
+
+        assertTrue(queue.offer(KeyEvent.VK_RIGHT, true));
+        assertTrue(queue.offer(KeyEvent.VK_SPACE, true));
+        assertTrue(queue.offer(KeyEvent.VK_RIGHT, false));
+        assertEquals(3, queue.size());
+        assertEquals(3, queue.drainTo(world));
+        assertEquals(0, queue.size());
+        assertEquals(3, log.size());
+        assertFalse(world.isHeld(Command.ROTATE_RIGHT));
+        assertTrue(world.isHeld(Command.FIRE));
+        assertEquals(0, queue.drainTo(world));
+
+        // a full queue throws new events away
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(KeyEvent.VK_UP, i % 2 == 0));
+        }
+        assertFalse(queue.offer(KeyEvent.VK_UP, true));
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals(4, queue.drainTo(world));
+    }
+
+    @Test
+    @Timeout(30)
+    void testHandsOverBetweenThreads() throws InterruptedException {
+        InputQueue queue = new InputQueue(64);
+        AsteroidsWorld world = new AsteroidsWorld(900, 900, 7);
+        InputLog log = world.startRecording();
+        int events = 10_000;
+
+        // both sides give up the CPU while waiting, so the other can run
+        // even on a single core
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < events; i++) {
+                while (!queue.offer(KeyEvent.VK_LEFT, i % 2 == 0)) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+        int received = 0;
+        while (received < events) {
+            int drained = queue.drainTo(world);
+            if (drained == 0) {
+                Thread.yield();
+            }
+            received += drained;
+            // every press is followed by its release, so the key is only
+            // ever seen held after an odd number of events
+            assertEquals(received % 2 == 1, world.isHeld(Command.ROTATE_LEFT));
+        }
+        producer.join();
+        assertEquals(events, log.size());
+    }
+}
@@ -0,0 +1,66 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class SessionRunnerTest {
+
+    @Test
+    void testBatchedRunsEverySessionToItsBudget() throws InterruptedException {
+        checkRun(SessionRunner.Mode.BATCHED);
+    }
+
+    @Test
+    void testVirtualThreadsOrFallback() throws InterruptedException {
+        checkRun(SessionRunner.Mode.VIRTUAL_THREADS);
+    }
+
+    @Test
+    void testFailureStopsOnlyItsSession() throws InterruptedException {
+        SessionRunner runner = new SessionRunner();
+        SessionRunner.Session broken = runner.add(new AsteroidsWorld(900, 900, 1), 100, w -> {
+            if (w.getTick() == 10) {
+                throw new IllegalStateException("broken controller");
+            }
+        });
+        SessionRunner.Session fine = runner.add(new AsteroidsWorld(900, 900, 2), 100);
+        runner.run(SessionRunner.Mode.BATCHED, 2);
+
+        assertTrue(broken.getFailure() instanceof IllegalStateException);
+        assertEquals(10, broken.getTicksRun());
+        assertNull(fine.getFailure());
+        assertEquals(100, fine.getTicksRun());
+        assertEquals(110, runner.getTotalTicks());
+    }
+
+    /**
+     * Runs a handful of seeded sessions with different budgets and checks
+     * that each one plays out just as it does stepped on its own.
+     */
+    private static void checkRun(SessionRunner.Mode mode) throws InterruptedException {
+        SessionRunner runner = new SessionRunner();
+        runner.setBatchSize(3);
+        for (int i = 0; i < 20; i++) {
+            runner.add(new AsteroidsWorld(900, 900, i), 200 + 50 * i, SessionRunner::fireAndTurn);
+        }
+        runner.run(mode, 4);
+
+        long total = 0;
+        for (int i = 0; i < 20; i++) {
+            SessionRunner.Session session = runner.getSessions().get(i);
+            assertNull(session.getFailure());
+            AsteroidsWorld alone = new AsteroidsWorld(900, 900, i);
+            while (alone.getTick() < session.getTickBudget() && !alone.isGameOver()) {
+                SessionRunner.fireAndTurn(alone);
+                alone.step();
+            }
+            assertEquals(alone.getTick(), session.getTicksRun());
+            assertEquals(alone.getScore(), session.getWorld().getScore());
+            assertEquals(alone.getLives(), session.getWorld().getLives());
+            total += session.getTicksRun();
+        }
+        assertEquals(total, runner.getTotalTicks());
+        assertTrue(runner.getElapsedNanos() > 0);
+        assertTrue(runner.getTicksPerSecond() > 0);
+    }
+}
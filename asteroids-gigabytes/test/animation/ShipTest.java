@@ -0,0 +1,134 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Polygon;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class ShipTest {
+
+    private Ship ship = new Ship(new AnimationStub());
+
+    @Test
+    void testShapeIsStableAcrossCalls() {
+        Shape first = ship.getShape();
+        double[] corners = corners(first);
+        Rectangle2D bounds = ship.getBounds2D();
+        double[] box = {bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight()};
+
+        for (int i = 0; i < 10; i++) {
+            assertSame(first, ship.getShape());
+            assertSame(bounds, ship.getBounds2D());
+            assertArrayEquals(corners, corners(ship.getShape()));
+        }
+        assertArrayEquals(box, new double[] {bounds.getX(), bounds.getY(),
+                bounds.getWidth(), bounds.getHeight()});
+    }
+
+    @Test
+    void testDirtyFlag() {
+        ship.getShape();
+        assertFalse(ship.isShapeDirty());
+
+        ship.right();
+        assertTrue(ship.isShapeDirty());
+        ship.getShape();
+        assertFalse(ship.isShapeDirty());
+
+        ship.up();
+        assertTrue(ship.isShapeDirty());
+        ship.getBounds2D();
+        assertFalse(ship.isShapeDirty());
+
+        // Nothing moved, so the shape is still good
+        ship.nextFrame();
+        assertFalse(ship.isShapeDirty());
+
+        ship.invalidateShape();
+        assertTrue(ship.isShapeDirty());
+    }
+
+    @Test
+    void testShapeMatchesTransformedTriangle() {
+        ship.right();
+        ship.right();
+
+        Polygon triangle = new Polygon();
+        triangle.addPoint(10, 20);
+        triangle.addPoint(0, -20);
+        triangle.addPoint(-10, 20);
+
+        // Build the shape the way it used to be made, at the starting spot
+        AffineTransform at = new AffineTransform();
+        at.translate(450, 450);
+        at.rotate(2 * Math.PI / 15);
+        double[] expected = corners(at.createTransformedShape(triangle));
+        double[] actual = corners(ship.getShape());
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i], 1e-9);
+        }
+    }
+
+    @Test
+    void testShapeDoesNotChangeDirection() {
+        ship.left();
+        double dx = ship.getXDirection();
+        double dy = ship.getYDirection();
+        ship.getShape();
+        ship.getShape();
+        assertEquals(dx, ship.getXDirection(), 0);
+        assertEquals(dy, ship.getYDirection(), 0);
+        assertEquals(10 * Math.sin(-Math.PI / 15), dx, 1e-12);
+    }
+
+    @Test
+    void testInterpolatesBetweenTicks() {
+        ship.savePreviousState();
+        double x = ship.getX();
+        double angle = ship.getAngle();
+        ship.right();
+        ship.right();
+        ship.up();
+        assertEquals(angle, ship.getInterpolatedAngle(0), 0);
+        assertEquals(angle + Math.PI / 15, ship.getInterpolatedAngle(0.5), 1e-12);
+        assertEquals(ship.getAngle(), ship.getInterpolatedAngle(1), 0);
+        assertEquals((x + ship.getX()) / 2, ship.getInterpolatedX(0.5), 1e-12);
+
+        // A hyperspace jump is not drawn sliding across the screen
+        ship.savePreviousState();
+        ship.shift();
+        assertEquals(ship.getX(), ship.getInterpolatedX(0), 0);
+        assertEquals(ship.getY(), ship.getInterpolatedY(0), 0);
+    }
+
+    @Test
+    void testDestroyEmptiesShape() {
+        ship.destroy();
+        assertEquals(0, ship.getBounds2D().getWidth(), 0);
+        assertEquals(0, corners(ship.getShape()).length);
+    }
+
+    /**
+     * Lists the x, y of every point along a shape's outline
+     */
+    private static double[] corners(Shape shape) {
+        double[] result = new double[0];
+        double[] coords = new double[6];
+        for (PathIterator it = shape.getPathIterator(null); !it.isDone(); it.next()) {
+            int type = it.currentSegment(coords);
+            if (type == PathIterator.SEG_MOVETO || type == PathIterator.SEG_LINETO) {
+                result = Arrays.copyOf(result, result.length + 2);
+                result[result.length - 2] = coords[0];
+                result[result.length - 1] = coords[1];
+            }
+        }
+        return result;
+    }
+
+}
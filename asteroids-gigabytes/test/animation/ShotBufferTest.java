@@ -0,0 +1,88 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ShotBufferTest {
+
+    private AnimationStub playfield = new AnimationStub();
+
+    private Ship ship = new Ship(playfield);
+
+    @Test
+    void testFullBufferEndsOldestShot() {
+        ShotBuffer shots = new ShotBuffer(playfield, 3, 100);
+        Shot first = shots.fire(ship);
+        shots.fire(ship);
+        shots.fire(ship);
+        assertEquals(3, shots.getLiveCount());
+
+        // The ring is full, so the oldest shot makes room for the new one
+        Shot fourth = shots.fire(ship);
+        assertEquals(3, shots.getLiveCount());
+        assertSame(first, fourth);
+        assertSame(fourth, shots.get(shots.size() - 1));
+    }
+
+    @Test
+    void testFullBufferReusesEndedShotsFirst() {
+        ShotBuffer shots = new ShotBuffer(playfield, 3, 100);
+        Shot first = shots.fire(ship);
+        shots.fire(ship);
+        Shot third = shots.fire(ship);
+        shots.end(1);
+
+        // A shot in the middle has ended, so nothing still flying is
+        // ended to make room
+        Shot fourth = shots.fire(ship);
+        assertEquals(3, shots.getLiveCount());
+        assertEquals(3, shots.size());
+        assertFalse(first.isEnded());
+        assertSame(first, shots.get(0));
+        assertSame(third, shots.get(1));
+        assertSame(fourth, shots.get(2));
+    }
+
+    @Test
+    void testShotsExpire() {
+        ShotBuffer shots = new ShotBuffer(playfield, 4, 3);
+        // Point the shot sideways so it stays on screen for a while
+        ship.right();
+        shots.fire(ship);
+        shots.update();
+        shots.update();
+        assertEquals(1, shots.getLiveCount());
+        shots.update();
+        assertEquals(0, shots.getLiveCount());
+        assertEquals(0, shots.size());
+    }
+
+    @Test
+    void testShotsLeavingScreenEnd() {
+        ShotBuffer shots = new ShotBuffer(playfield, 4, 1000);
+        shots.fire(ship);
+        // Shots move 80 pixels a tick, so this one leaves the top of the
+        // screen long before its lifetime is up
+        for (int i = 0; i < 10; i++) {
+            shots.update();
+        }
+        assertEquals(0, shots.getLiveCount());
+    }
+
+    @Test
+    void testEndingMiddleShot() {
+        ShotBuffer shots = new ShotBuffer(playfield, 4, 100);
+        shots.fire(ship);
+        shots.fire(ship);
+        shots.fire(ship);
+        shots.end(1);
+        assertEquals(2, shots.getLiveCount());
+        assertEquals(3, shots.size());
+        assertTrue(shots.get(1).isEnded());
+
+        shots.clear();
+        assertEquals(0, shots.getLiveCount());
+        assertEquals(0, shots.size());
+    }
+
+}
@@ -0,0 +1,68 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class SnapshotBufferTest {
+
+    @Test
+    void testReaderGetsTheNewest() {
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        AsteroidsWorld world = new AsteroidsWorld(900, 900, 1);
+        assertEquals(0, buffer.getLatest().getTick());
+
+        world.step();
+        buffer.publish(world, null);
+        world.step();
+        buffer.publish(world, null);
+        WorldSnapshot latest = buffer.getLatest();
+        assertEquals(2, latest.getTick());
+
+        // nothing new, so the reader keeps the same one
+        assertSame(latest, buffer.getLatest());
+
+        // the writer never fills the one being read
+        for (int i = 0; i < 5; i++) {
+            assertNotSame(latest, buffer.getBack());
+            world.step();
+            buffer.publish(world, null);
+        }
+        assertEquals(2, latest.getTick());
+        assertEquals(7, buffer.getLatest().getTick());
+    }
+
+    @Test
+    void testReaderNeverSeesSnapshotsChange() throws InterruptedException {
+        SnapshotBuffer buffer = new SnapshotBuffer();
+        AsteroidsWorld world = new AsteroidsWorld(900, 900, 5);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 5000; i++) {
+                WorldFixtures.playTicks(world, 1);
+                buffer.publish(world, null);
+            }
+            done.set(true);
+        });
+        writer.start();
+
+        long previous = 0;
+        while (!done.get()) {
+            WorldSnapshot snapshot = buffer.getLatest();
+            long tick = snapshot.getTick();
+            int score = snapshot.getScore();
+            int asteroids = snapshot.getAsteroidCount();
+            assertTrue(tick >= previous);
+            for (int spin = 0; spin < 100; spin++) {
+                Thread.onSpinWait();
+            }
+            assertEquals(tick, snapshot.getTick());
+            assertEquals(score, snapshot.getScore());
+            assertEquals(asteroids, snapshot.getAsteroidCount());
+            previous = tick;
+        }
+        writer.join();
+        assertEquals(5000, buffer.getLatest().getTick());
+    }
+}
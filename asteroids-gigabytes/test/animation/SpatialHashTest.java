@@ -0,0 +1,123 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SpatialHashTest {
+
+    private SpatialHash<Box> grid = new SpatialHash<>(900, 900, 100);
+
+    @Test
+    void testQueryFindsOnlyNearby() {
+        Box near = new Box(100, 100, 40, 40);
+        Box far = new Box(600, 600, 40, 40);
+        grid.insert(near);
+        grid.insert(far);
+
+        List<Box> result = new ArrayList<>();
+        grid.query(new Rectangle2D.Double(120, 120, 10, 10), result);
+
+        assertEquals(1, result.size());
+        assertSame(near, result.get(0));
+    }
+
+    @Test
+    void testQueryWrapsAroundEdges() {
+        // Hangs off the right edge, so it also covers x = 0..20
+        Box right = new Box(880, 400, 40, 40);
+        // Starts above the top edge, so it also covers y = 880..900
+        Box top = new Box(400, -20, 40, 40);
+        grid.insert(right);
+        grid.insert(top);
+
+        List<Box> result = new ArrayList<>();
+        grid.query(new Rectangle2D.Double(5, 410, 5, 5), result);
+        assertEquals(1, result.size());
+        assertSame(right, result.get(0));
+
+        result.clear();
+        grid.query(new Rectangle2D.Double(410, 890, 5, 5), result);
+        assertEquals(1, result.size());
+        assertSame(top, result.get(0));
+    }
+
+    @Test
+    void testQueryKeepsInsertionOrder() {
+        Box first = new Box(300, 300, 200, 200);
+        Box second = new Box(310, 310, 20, 20);
+        Box third = new Box(450, 450, 20, 20);
+        grid.insert(first);
+        grid.insert(second);
+        grid.insert(third);
+
+        List<Box> result = new ArrayList<>();
+        grid.query(new Rectangle2D.Double(300, 300, 200, 200), result);
+
+        assertEquals(3, result.size());
+        assertSame(first, result.get(0));
+        assertSame(second, result.get(1));
+        assertSame(third, result.get(2));
+    }
+
+    @Test
+    void testForEachPair() {
+        Box a = new Box("a", 0, 0, 50, 50);
+        Box b = new Box("b", 40, 40, 50, 50);
+        Box c = new Box("c", 880, 880, 30, 30);
+        Box d = new Box("d", 500, 500, 10, 10);
+        grid.insert(a);
+        grid.insert(b);
+        grid.insert(c);
+        grid.insert(d);
+
+        List<String> pairs = new ArrayList<>();
+        grid.forEachPair((first, second) -> pairs.add(first.name + second.name));
+
+        // c wraps onto the top left corner and touches a
+        assertEquals(2, pairs.size());
+        assertEquals("ab", pairs.get(0));
+        assertEquals("ac", pairs.get(1));
+    }
+
+    @Test
+    void testClear() {
+        grid.insert(new Box(100, 100, 40, 40));
+        grid.clear();
+
+        List<Box> result = new ArrayList<>();
+        grid.query(new Rectangle2D.Double(0, 0, 900, 900), result);
+        assertEquals(0, result.size());
+        assertEquals(0, grid.size());
+    }
+
+    // A rectangle that sits still
+    private static class Box implements AnimatedObject {
+        private final Rectangle2D shape;
+        private final String name;
+
+        Box(double x, double y, double w, double h) {
+            this("", x, y, w, h);
+        }
+
+        Box(String name, double x, double y, double w, double h) {
+            this.name = name;
+            shape = new Rectangle2D.Double(x, y, w, h);
+        }
+
+        public void nextFrame() {
+        }
+
+        public void paint(Graphics2D g) {
+        }
+
+        public Shape getShape() {
+            return shape;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SpriteCacheTest {
+
+    private AnimationStub playfield = new AnimationStub();
+
+    private SpriteCache cache = new SpriteCache();
+
+    @Test
+    void testShipSpriteMatchesShape() {
+        Ship ship = new Ship(playfield);
+        for (int turn = 0; turn < 40; turn++) {
+            assertArrayEquals(WorldFixtures.draw(g -> ship.paint(g)), WorldFixtures.draw(g -> cache.drawShip(g, ship)));
+            if (turn % 3 == 0) {
+                ship.left();
+                ship.up();
+            } else {
+                ship.right();
+            }
+        }
+        // turning both ways only ever needs the 30 rotations
+        assertTrue(cache.size() <= 30);
+        assertTrue(cache.getHits() > 0);
+    }
+
+    @Test
+    void testAsteroidSpriteMatchesShape() {
+        AsteroidField field = new AsteroidField(playfield, 16, new Random(3));
+        for (int i = 0; i < 20; i++) {
+            int slot = field.spawn();
+            if (i % 4 == 0) {
+                field.destroy(slot);
+            }
+            assertArrayEquals(WorldFixtures.draw(g -> field.get(slot).paint(g)),
+                    WorldFixtures.draw(g -> cache.drawAsteroid(g, field, slot)));
+        }
+    }
+
+    @Test
+    void testLeastRecentlyUsedSpritesAreEvicted() {
+        AsteroidField field = new AsteroidField(playfield, 16, new Random(3));
+        int first = field.spawn(1, 100, 100);
+        // one small asteroid picture is at most 41 by 41 pixels
+        SpriteCache small = new SpriteCache(2 * 41 * 41 * 4);
+        BufferedImage image = new BufferedImage(900, 900, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        small.drawAsteroid(g, field, first);
+        for (int i = 0; i < 10; i++) {
+            small.drawAsteroid(g, field, field.spawn(1, 100, 100));
+            // keep the first picture in use so it is never the eldest
+            small.drawAsteroid(g, field, first);
+        }
+        g.dispose();
+
+        assertTrue(small.getBytes() <= 2 * 41 * 41 * 4);
+        assertTrue(small.getEvictions() > 0);
+        long misses = small.getMisses();
+        small.drawAsteroid(image.createGraphics(), field, first);
+        assertEquals(misses, small.getMisses());
+    }
+
+}
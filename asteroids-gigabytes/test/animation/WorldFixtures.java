@@ -0,0 +1,44 @@
+package animation;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Ways of playing and drawing worlds that many tests share.
+ */
+final class WorldFixtures {
+    // Width and height of the image draw paints onto
+    private static final int IMAGE_SIZE = 900;
+
+    /**
+     * Something that paints onto a graphics context.
+     */
+    interface Painter {
+        void paint(Graphics2D g);
+    }
+
+    private WorldFixtures() {
+    }
+
+    /**
+     * Steps a world, turning and firing every few ticks the way
+     * SessionRunner.fireAndTurn does, so asteroids get split.
+     */
+    static void playTicks(AsteroidsWorld world, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            SessionRunner.fireAndTurn(world);
+            world.step();
+        }
+    }
+
+    /**
+     * Paints onto a blank image and returns its pixels.
+     */
+    static int[] draw(Painter painter) {
+        BufferedImage image = new BufferedImage(IMAGE_SIZE, IMAGE_SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        painter.paint(g);
+        g.dispose();
+        return image.getRGB(0, 0, IMAGE_SIZE, IMAGE_SIZE, null, 0, IMAGE_SIZE);
+    }
+}
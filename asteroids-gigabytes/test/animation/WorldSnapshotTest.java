@@ -0,0 +1,79 @@
+package animation;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Graphics2D;
+
+import org.junit.jupiter.api.Test;
+
+class WorldSnapshotTest {
+
+    @Test
+    void testPaintsLikeTheWorld() {
+        AsteroidsWorld world = new AsteroidsWorld(900, 900, 7);
+        WorldSnapshot snapshot = new WorldSnapshot();
+        for (int round = 0; round < 8; round++) {
+            WorldFixtures.playTicks(world, 49);
+            // thrust on the tick captured, so the ship moves during it
+            world.apply(Command.THRUST);
+            WorldFixtures.playTicks(world, 1);
+
+            snapshot.capture(world, null);
+            assertEquals(world.getTick(), snapshot.getTick());
+            assertEquals(world.getScore(), snapshot.getScore());
+            assertEquals(world.getLives(), snapshot.getLives());
+            assertEquals(world.getAsteroids().size(), snapshot.getAsteroidTotal());
+            for (double alpha : new double[] {0, 0.5, 1}) {
+                assertArrayEquals(WorldFixtures.draw(g -> paintWorld(g, world, alpha)),
+                        WorldFixtures.draw(g -> paintSnapshot(g, snapshot, alpha)));
+            }
+        }
+    }
+
+    @Test
+    void testCameraLeavesOutWhatIsOffScreen() {
+        AsteroidsWorld world = new AsteroidsWorld(5000, 5000, 3);
+        world.scatterAsteroids(500);
+        Camera camera = new Camera(world, 900, 900);
+        camera.follow(world.getShip());
+        WorldSnapshot snapshot = new WorldSnapshot();
+        snapshot.capture(world, camera);
+
+        assertEquals(505, snapshot.getAsteroidTotal());
+        assertTrue(snapshot.getAsteroidCount() < 100);
+        int onScreen = 0;
+        AsteroidField asteroids = world.getAsteroids();
+        for (int slot = 0; slot < asteroids.getSlotLimit(); slot++) {
+            java.awt.geom.Rectangle2D box = asteroids.get(slot).getBounds2D();
+            if (camera.isVisible(box.getX(), box.getY(), box.getWidth(), box.getHeight())) {
+                onScreen++;
+            }
+        }
+        assertEquals(onScreen, snapshot.getAsteroidCount());
+    }
+
+    private static void paintWorld(Graphics2D g, AsteroidsWorld world, double alpha) {
+        if (!world.getShip().isDestroyed()) {
+            world.getShip().paint(g, alpha);
+        }
+        AsteroidField asteroids = world.getAsteroids();
+        for (int slot = 0; slot < asteroids.getSlotLimit(); slot++) {
+            if (asteroids.isUsed(slot)) {
+                asteroids.get(slot).paint(g, alpha);
+            }
+        }
+        ShotBuffer shots = world.getShots();
+        for (int i = 0; i < shots.size(); i++) {
+            shots.get(i).paint(g, alpha);
+        }
+    }
+
+    private static void paintSnapshot(Graphics2D g, WorldSnapshot snapshot, double alpha) {
+        snapshot.paintShip(g, alpha, null);
+        for (int i = 0; i < snapshot.getAsteroidCount(); i++) {
+            snapshot.paintAsteroid(g, i, alpha, null);
+        }
+        for (int i = 0; i < snapshot.getShotCount(); i++) {
+            snapshot.paintShot(g, i, alpha);
+        }
+    }
+}